@@ -1,7 +1,10 @@
 package com.taskmanager;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.core.env.Environment;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -9,8 +12,11 @@ import jakarta.annotation.PostConstruct;
 import java.util.Arrays;
 
 @SpringBootApplication
+@EnableScheduling
 public class TaskNotesApiApplication {
 
+    private static final Logger log = LoggerFactory.getLogger(TaskNotesApiApplication.class);
+
     @Autowired
     private Environment env; // ✅ 注入 Environment 对象
 
@@ -20,6 +26,6 @@ public class TaskNotesApiApplication {
 
     @PostConstruct
     public void printActiveProfiles() {
-        System.out.println("Active profiles: " + Arrays.toString(env.getActiveProfiles()));
+        log.info("Active profiles: {}", Arrays.toString(env.getActiveProfiles()));
     }
 }
\ No newline at end of file
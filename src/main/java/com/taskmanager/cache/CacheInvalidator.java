@@ -0,0 +1,72 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.event.ChangeEvent;
+import com.taskmanager.security.CurrentUserResolver;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Evicts cache entries once a write commits. Every mutating method of the task, note and tag services
+ * publishes a {@link ChangeEvent} per affected entity, so eviction needs no per-method wiring.
+ * Writes on other nodes arrive through the {@link InvalidationBus} and take the same path.
+ */
+@Component
+public class CacheInvalidator {
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @PostConstruct
+    public void init() {
+        invalidationBus.subscribe(this::onRemote);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        evict(event.type(), event.userId(), event.id());
+    }
+
+    private void onRemote(List<Invalidation> batch) {
+        for (Invalidation invalidation : batch) {
+            switch (invalidation.type()) {
+                case Invalidation.ALL -> {
+                    entityCache.evictAll();
+                    currentUserResolver.evictAll();
+                }
+                case Invalidation.USER -> currentUserResolver.evict(invalidation.id());
+                case ChangeEvent.TASK, ChangeEvent.NOTE, ChangeEvent.TAG ->
+                        evict(invalidation.type(), invalidation.userId(), UUID.fromString(invalidation.id()));
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void evict(String type, UUID userId, UUID id) {
+        switch (type) {
+            case ChangeEvent.TASK -> entityCache.evict(EntityCache.Region.TASKS, userId, id);
+            case ChangeEvent.NOTE -> entityCache.evict(EntityCache.Region.NOTES, userId, id);
+            case ChangeEvent.TAG -> {
+                entityCache.evict(EntityCache.Region.TAGS, userId, id);
+                entityCache.evictUser(EntityCache.Region.TAG_LISTS, userId);
+                // Cached tasks and notes embed their tags' names and colors
+                entityCache.evictUser(EntityCache.Region.TASKS, userId);
+                entityCache.evictUser(EntityCache.Region.NOTES, userId);
+            }
+            default -> {
+            }
+        }
+    }
+}
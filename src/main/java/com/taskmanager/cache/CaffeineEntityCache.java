@@ -0,0 +1,101 @@
+package com.taskmanager.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache, one bounded Caffeine (W-TinyLFU) cache per region.
+ * <p>
+ * Entries are futures: the first miss on a key installs one and loads on the calling thread, later misses
+ * wait on it instead of querying too. No lock is held while loading, and an eviction that lands mid-load
+ * removes the in-flight future, so a value read before a commit is never cached after it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.provider", havingValue = "caffeine", matchIfMissing = true)
+public class CaffeineEntityCache implements EntityCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private final Map<Region, AsyncCache<Key, Object>> caches = new EnumMap<>(Region.class);
+
+    @PostConstruct
+    public void init() {
+        for (Region region : Region.values()) {
+            AsyncCache<Key, Object> cache = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                    .recordStats()
+                    .buildAsync();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "entities",
+                    Tags.of("region", region.name().toLowerCase()));
+            caches.put(region, cache);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Region region, UUID userId, Object id, Supplier<T> loader) {
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> future = caches.get(region).get(new Key(userId, id), (key, executor) -> loading);
+        if (future == loading) {
+            try {
+                loading.complete(loader.get());
+            } catch (RuntimeException e) {
+                // Failed futures are dropped by Caffeine, so the next request retries the load
+                loading.completeExceptionally(e);
+                throw e;
+            }
+            return (T) loading.join();
+        }
+
+        try {
+            return (T) future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void evict(Region region, UUID userId, Object id) {
+        caches.get(region).synchronous().invalidate(new Key(userId, id));
+    }
+
+    @Override
+    public void evictUser(Region region, UUID userId) {
+        caches.get(region).asMap().keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    @Override
+    public void evictAll() {
+        caches.values().forEach(cache -> cache.synchronous().invalidateAll());
+    }
+
+    private record Key(UUID userId, Object id) {
+    }
+}
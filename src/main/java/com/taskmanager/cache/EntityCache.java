@@ -0,0 +1,30 @@
+package com.taskmanager.cache;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cache-aside store for per-user read results, keyed by user id and entity id within a region.
+ * <p>
+ * Values are detached entities handed straight to the JSON layer; callers must not modify them.
+ * Entries are evicted by {@link CacheInvalidator} once a write commits; size and TTL limits only bound
+ * memory and the damage of a missed eviction. A distributed backend implements the same contract.
+ */
+public interface EntityCache {
+
+    enum Region {
+        TASKS, NOTES, TAGS, TAG_LISTS
+    }
+
+    /**
+     * Returns the cached value or loads it. Concurrent misses on the same key share a single load;
+     * an exception thrown by the loader reaches every waiting caller and nothing is cached.
+     */
+    <T> T get(Region region, UUID userId, Object id, Supplier<T> loader);
+
+    void evict(Region region, UUID userId, Object id);
+
+    void evictUser(Region region, UUID userId);
+
+    void evictAll();
+}
@@ -0,0 +1,50 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.event.ChangeEvent;
+
+import java.util.UUID;
+
+/**
+ * One cache entry other nodes must drop. Types are the {@link ChangeEvent} types plus {@link #USER}
+ * (id is the email), {@link #TOKEN} (a revoked JWT), {@link #TOKEN_VERSION} (id is the user's new
+ * token version) and {@link #ALL}, which is only raised locally after missed messages.
+ */
+public record Invalidation(String type, UUID userId, String id) {
+
+    public static final String USER = "user";
+    public static final String TOKEN = "token";
+    public static final String TOKEN_VERSION = "token_version";
+    public static final String ALL = "*";
+
+    public static Invalidation of(ChangeEvent event) {
+        return new Invalidation(event.type(), event.userId(), event.id().toString());
+    }
+
+    public static Invalidation user(UUID userId, String email) {
+        return new Invalidation(USER, userId, email);
+    }
+
+    public static Invalidation all() {
+        return new Invalidation(ALL, null, null);
+    }
+
+    // Compact wire form "type:userId:id"; the id goes last because an email may contain ':'
+    public String encode() {
+        return type + ":" + userId + ":" + id;
+    }
+
+    /**
+     * Returns null for lines this node does not understand, e.g. from a newer release.
+     */
+    public static Invalidation decode(String line) {
+        String[] parts = line.split(":", 3);
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new Invalidation(parts[0], UUID.fromString(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.taskmanager.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidations between application nodes.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Sends one transaction's invalidations. Called on the writing thread just before commit (or right
+     * away outside a transaction); implementations must not deliver anything if the transaction rolls back.
+     */
+    void broadcast(List<Invalidation> batch);
+
+    /**
+     * Registers a handler for invalidations from other nodes; handlers run on the bus's own thread.
+     */
+    void subscribe(Consumer<List<Invalidation>> handler);
+}
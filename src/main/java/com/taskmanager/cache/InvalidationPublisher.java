@@ -0,0 +1,57 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.event.ChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the invalidations of a transaction and hands them to the {@link InvalidationBus} as one
+ * de-duplicated batch just before it commits, so a bulk write of 500 tasks costs one broadcast.
+ * Service writes are picked up from their {@link ChangeEvent}s; other writes call {@link #publish}.
+ */
+@Component
+public class InvalidationPublisher {
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    // Runs synchronously inside the writing transaction, unlike the AFTER_COMMIT listeners
+    @EventListener
+    public void onChange(ChangeEvent event) {
+        publish(Invalidation.of(event));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void publish(Invalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidationBus.broadcast(List.of(invalidation));
+            return;
+        }
+
+        Set<Invalidation> pending = (Set<Invalidation>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Invalidation> batch = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    invalidationBus.broadcast(List.copyOf(batch));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(InvalidationPublisher.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(invalidation);
+    }
+}
@@ -0,0 +1,44 @@
+package com.taskmanager.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single-node bus that hands each committed batch straight back to this node's handlers.
+ * Used for local runs and tests; it exercises the same path as remote delivery.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.bus", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackInvalidationBus implements InvalidationBus {
+
+    private final List<Consumer<List<Invalidation>>> handlers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void broadcast(List<Invalidation> batch) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(batch);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deliver(batch);
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(Consumer<List<Invalidation>> handler) {
+        handlers.add(handler);
+    }
+
+    private void deliver(List<Invalidation> batch) {
+        handlers.forEach(handler -> handler.accept(batch));
+    }
+}
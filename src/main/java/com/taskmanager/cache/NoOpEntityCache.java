@@ -0,0 +1,32 @@
+package com.taskmanager.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Disables caching ({@code app.cache.provider=none}); every read goes to the database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.provider", havingValue = "none")
+public class NoOpEntityCache implements EntityCache {
+
+    @Override
+    public <T> T get(Region region, UUID userId, Object id, Supplier<T> loader) {
+        return loader.get();
+    }
+
+    @Override
+    public void evict(Region region, UUID userId, Object id) {
+    }
+
+    @Override
+    public void evictUser(Region region, UUID userId) {
+    }
+
+    @Override
+    public void evictAll() {
+    }
+}
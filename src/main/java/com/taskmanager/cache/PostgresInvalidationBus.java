@@ -0,0 +1,184 @@
+package com.taskmanager.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation bus over PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * pg_notify runs on the writing transaction's own connection, so PostgreSQL delivers the batch exactly
+ * when the data commits and drops it on rollback. Each node listens on a dedicated connection outside
+ * the Hikari pool and skips its own messages, which it already applied locally. After a lost listener
+ * connection every cache is flushed, since messages sent in the gap are gone.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.bus", havingValue = "postgres")
+public class PostgresInvalidationBus implements InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    // NOTIFY payloads must stay below 8000 bytes; a char takes at most three UTF-8 bytes
+    private static final int MAX_PAYLOAD_CHARS = 2600;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.invalidation.channel:cache_invalidation}")
+    private String channel;
+
+    @Value("${app.cache.invalidation.poll-ms:500}")
+    private int pollMs;
+
+    @Value("${app.cache.invalidation.reconnect-ms:5000}")
+    private long reconnectMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<List<Invalidation>>> handlers = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listener;
+
+    private Counter sent;
+    private Counter received;
+
+    @PostConstruct
+    public void start() {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid invalidation channel name: " + channel);
+        }
+        sent = Counter.builder("app.cache.invalidation.sent")
+                .description("Invalidation entries broadcast to other nodes")
+                .register(meterRegistry);
+        received = Counter.builder("app.cache.invalidation.received")
+                .description("Invalidation entries received from other nodes")
+                .register(meterRegistry);
+
+        running = true;
+        listener = new Thread(this::listen, "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listener.interrupt();
+    }
+
+    @Override
+    public void broadcast(List<Invalidation> batch) {
+        StringBuilder payload = new StringBuilder(nodeId);
+        for (Invalidation invalidation : batch) {
+            String entry = invalidation.encode();
+            if (payload.length() > nodeId.length() && payload.length() + 1 + entry.length() > MAX_PAYLOAD_CHARS) {
+                pgNotify(payload.toString());
+                payload = new StringBuilder(nodeId);
+            }
+            payload.append('\n').append(entry);
+        }
+        if (payload.length() > nodeId.length()) {
+            pgNotify(payload.toString());
+        }
+        sent.increment(batch.size());
+    }
+
+    @Override
+    public void subscribe(Consumer<List<Invalidation>> handler) {
+        handlers.add(handler);
+    }
+
+    // Joins the caller's transaction when there is one
+    private void pgNotify(String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (connectedBefore) {
+                    log.info("Invalidation listener reconnected; flushing caches");
+                    deliver(List.of(Invalidation.all()));
+                }
+                connectedBefore = true;
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(pollMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Invalidation listener lost its connection: {}", e.getMessage());
+                try {
+                    Thread.sleep(reconnectMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        String[] lines = payload.split("\n");
+        if (lines[0].equals(nodeId)) {
+            return;
+        }
+        List<Invalidation> batch = new ArrayList<>(lines.length - 1);
+        for (int i = 1; i < lines.length; i++) {
+            Invalidation invalidation = Invalidation.decode(lines[i]);
+            if (invalidation != null) {
+                batch.add(invalidation);
+            }
+        }
+        received.increment(batch.size());
+        deliver(batch);
+    }
+
+    private void deliver(List<Invalidation> batch) {
+        for (Consumer<List<Invalidation>> handler : handlers) {
+            try {
+                handler.accept(batch);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation handler failed: {}", e.getMessage());
+            }
+        }
+    }
+}
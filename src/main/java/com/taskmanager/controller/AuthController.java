@@ -2,12 +2,25 @@ package com.taskmanager.controller;
 
 import com.taskmanager.dto.ApiResponse;
 import com.taskmanager.dto.AuthDTO;
+import com.taskmanager.security.AuthenticatedUser;
+import com.taskmanager.security.PasswordHashingExecutor;
 import com.taskmanager.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Signup and login hash or check a BCrypt password, so they run on the {@link PasswordHashingExecutor}
+ * and return a future: the request thread is released while the work waits for a hashing thread.
+ */
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -15,27 +28,73 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     @PostMapping("/signup")
-    public ResponseEntity<ApiResponse<AuthDTO.AuthResponse>> signup(
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthDTO.AuthResponse>>> signup(
             @Valid @RequestBody AuthDTO.SignupRequest request) {
         try {
-            AuthDTO.AuthResponse response = authService.signup(request);
-            return ResponseEntity.ok(ApiResponse.success("User registered successfully", response));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
+            return passwordHashingExecutor.submit("signup", () -> authService.signup(request))
+                    .handle((response, error) -> error == null
+                            ? ResponseEntity.ok(ApiResponse.success("User registered successfully", response))
+                            : ResponseEntity.badRequest().body(ApiResponse.error(unwrap(error).getMessage())));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests());
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthDTO.AuthResponse>> login(
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthDTO.AuthResponse>>> login(
             @Valid @RequestBody AuthDTO.LoginRequest request) {
         try {
-            AuthDTO.AuthResponse response = authService.login(request);
-            return ResponseEntity.ok(ApiResponse.success("Login successful", response));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Invalid credentials"));
+            return passwordHashingExecutor.submit("login", () -> authService.login(request))
+                    .handle((response, error) -> error == null
+                            ? ResponseEntity.ok(ApiResponse.success("Login successful", response))
+                            : ResponseEntity.badRequest().body(ApiResponse.error("Invalid credentials")));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests());
+        }
+    }
+
+    // No password involved: verified from memory on the request thread
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthDTO.AuthResponse>> refresh(@Valid @RequestBody AuthDTO.RefreshRequest request) {
+        try {
+            AuthDTO.AuthResponse response = authService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(ApiResponse.success("Token refreshed", response));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @Valid @RequestBody AuthDTO.RefreshRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        authService.logout(request.getRefreshToken(), accessToken);
+        return ResponseEntity.ok(ApiResponse.success("Logged out", null));
+    }
+
+    // Needs a valid access token: /auth/** is not protected by the security chain, so it is checked here
+    @PostMapping("/logout-all")
+    public ResponseEntity<ApiResponse<Void>> logoutAll(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("Authentication required"));
         }
+        authService.logoutAll(principal.getId());
+        return ResponseEntity.ok(ApiResponse.success("Logged out on all devices", null));
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error("Too many authentication requests, please retry"));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
-}
\ No newline at end of file
+}
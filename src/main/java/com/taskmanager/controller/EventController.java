@@ -0,0 +1,82 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.event.ChangeEvent;
+import com.taskmanager.event.ChangeEventBus;
+import com.taskmanager.security.CurrentUserResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/events")
+public class EventController {
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Value("${app.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    /**
+     * Server-Sent Events stream of the user's committed changes, served as an async request so an idle
+     * stream holds no servlet thread. Events: "ready" once connected (run GET /sync to cover the gap before
+     * it), "changes" with a JSON array of {type, id, action, at}, and "resync" when events were dropped
+     * for a slow reader. Clients reconnect when the stream times out.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe() {
+        UUID userId = currentUserResolver.getCurrentUserId();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        ChangeEventBus.Subscription subscription = changeEventBus.subscribe(userId, new ChangeEventBus.Sink() {
+            @Override
+            public void send(List<ChangeEvent> events, boolean overflowed) throws Exception {
+                if (overflowed) {
+                    emitter.send(SseEmitter.event().name("resync").data(""));
+                }
+                if (!events.isEmpty()) {
+                    emitter.send(SseEmitter.event().name("changes").data(events, MediaType.APPLICATION_JSON));
+                }
+            }
+
+            @Override
+            public void heartbeat() throws Exception {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            }
+
+            @Override
+            public void abort(Exception cause) {
+                emitter.completeWithError(cause);
+            }
+        });
+        if (subscription == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+
+        emitter.onCompletion(() -> changeEventBus.unsubscribe(subscription));
+        emitter.onTimeout(() -> changeEventBus.unsubscribe(subscription));
+        emitter.onError(e -> changeEventBus.unsubscribe(subscription));
+        try {
+            emitter.send(SseEmitter.event().name("ready").data(""));
+        } catch (Exception e) {
+            changeEventBus.unsubscribe(subscription);
+            emitter.completeWithError(e);
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
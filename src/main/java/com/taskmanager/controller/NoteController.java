@@ -1,15 +1,24 @@
 package com.taskmanager.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.taskmanager.dto.ApiResponse;
+import com.taskmanager.dto.BulkDTO;
 import com.taskmanager.dto.NoteDTO;
 import com.taskmanager.entity.Note;
+import com.taskmanager.service.ETags;
 import com.taskmanager.service.NoteService;
+import com.taskmanager.service.PreconditionFailedException;
+import com.taskmanager.web.JsonListWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.UUID;
 
 @RestController
@@ -19,30 +28,47 @@ public class NoteController {
     @Autowired
     private NoteService noteService;
 
-    @GetMapping
-    public ResponseEntity<ApiResponse<List<Note>>> getAllNotes(
-            @RequestParam(required = false) String search) {
-        try {
-            List<Note> notes;
+    @Autowired
+    private JsonListWriter jsonListWriter;
 
+    // Streamed: the list is written row by row as it is read, never materialized as entities
+    @GetMapping
+    public void getAllNotes(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+        // cursor or limit selects keyset pages; without them the full list is kept for existing clients
+        if (cursor != null || limit != null) {
+            jsonListWriter.writeObject(response, ifNoneMatch, noteService::getNotesEtag, () -> {
+                if (search != null) {
+                    throw new RuntimeException("cursor and limit cannot be combined with search");
+                }
+                return noteService.getNotesPage(cursor, limit);
+            });
+            return;
+        }
+        jsonListWriter.<NoteDTO.NoteView>write(response, ifNoneMatch, noteService::getNotesEtag, sink -> {
             if (search != null && !search.isEmpty()) {
-                notes = noteService.searchNotes(search);
+                noteService.searchNotes(search).forEach(note -> sink.accept(NoteDTO.NoteView.from(note)));
             } else {
-                notes = noteService.getAllNotes();
+                noteService.streamNotes(sink);
             }
-
-            return ResponseEntity.ok(ApiResponse.success(notes));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        });
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Note>> getNoteById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<Note>> getNoteById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             Note note = noteService.getNoteById(id);
-            return ResponseEntity.ok(ApiResponse.success(note));
+            String etag = ETags.of(note.getVersion(), note.getTags());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(note));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -54,7 +80,9 @@ public class NoteController {
             @Valid @RequestBody NoteDTO.CreateNoteRequest request) {
         try {
             Note note = noteService.createNote(request);
-            return ResponseEntity.ok(ApiResponse.success("Note created successfully", note));
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(note.getVersion(), note.getTags()))
+                    .body(ApiResponse.success("Note created successfully", note));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -64,10 +92,42 @@ public class NoteController {
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<Note>> updateNote(
             @PathVariable UUID id,
-            @Valid @RequestBody NoteDTO.UpdateNoteRequest request) {
+            @Valid @RequestBody NoteDTO.UpdateNoteRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Note note = noteService.updateNote(id, request, ETags.requiredVersion(ifMatch));
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(note.getVersion(), note.getTags()))
+                    .body(ApiResponse.success("Note updated successfully", note));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Note was modified concurrently, reload and retry"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    // JSON merge patch (application/merge-patch+json or application/json): only the given fields are written
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<Note>> patchNote(
+            @PathVariable UUID id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Note note = noteService.updateNote(id, request);
-            return ResponseEntity.ok(ApiResponse.success("Note updated successfully", note));
+            Note note = noteService.patchNote(id, patch, ETags.requiredVersion(ifMatch));
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(note.getVersion(), note.getTags()))
+                    .body(ApiResponse.success("Note updated successfully", note));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Note was modified concurrently, reload and retry"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -75,10 +135,15 @@ public class NoteController {
     }
 
     @PatchMapping("/{id}/pin")
-    public ResponseEntity<ApiResponse<Note>> toggleNotePinned(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<NoteDTO.NoteSummary>> toggleNotePinned(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Note note = noteService.toggleNotePinned(id);
+            NoteDTO.NoteSummary note = noteService.toggleNotePinned(id, ETags.requiredVersion(ifMatch));
             return ResponseEntity.ok(ApiResponse.success("Note pin status updated", note));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -95,4 +160,53 @@ public class NoteController {
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkDTO.BulkResult>> createNotes(
+            @Valid @RequestBody NoteDTO.BulkCreateNoteRequest request) {
+        try {
+            BulkDTO.BulkResult result = noteService.createNotes(request.getItems());
+            return ResponseEntity.ok(ApiResponse.success("Notes created", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkDTO.BulkResult>> updateNotes(
+            @Valid @RequestBody NoteDTO.BulkUpdateNoteRequest request) {
+        try {
+            BulkDTO.BulkResult result = noteService.updateNotes(request.getItems());
+            return ResponseEntity.ok(ApiResponse.success("Notes updated", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/bulk/pin")
+    public ResponseEntity<ApiResponse<BulkDTO.BulkResult>> toggleNotesPinned(
+            @Valid @RequestBody BulkDTO.IdsRequest request) {
+        try {
+            BulkDTO.BulkResult result = noteService.toggleNotesPinned(request.getIds());
+            return ResponseEntity.ok(ApiResponse.success("Note pins updated", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    // POST rather than DELETE: request bodies on DELETE are dropped by some clients and proxies
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<ApiResponse<BulkDTO.BulkResult>> deleteNotes(
+            @Valid @RequestBody BulkDTO.IdsRequest request) {
+        try {
+            BulkDTO.BulkResult result = noteService.deleteNotes(request.getIds());
+            return ResponseEntity.ok(ApiResponse.success("Notes deleted", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.taskmanager.controller;
 
 import com.taskmanager.dto.ApiResponse;
+import com.taskmanager.dto.StatsDTO;
 import com.taskmanager.service.StatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -8,8 +9,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
-
 @RestController
 @RequestMapping("/stats")
 public class StatsController {
@@ -18,9 +17,9 @@ public class StatsController {
     private StatsService statsService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getStatistics() {
+    public ResponseEntity<ApiResponse<StatsDTO.Statistics>> getStatistics() {
         try {
-            Map<String, Object> stats = statsService.getStatistics();
+            StatsDTO.Statistics stats = statsService.getStatistics();
             return ResponseEntity.ok(ApiResponse.success(stats));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
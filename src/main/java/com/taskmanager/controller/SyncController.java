@@ -0,0 +1,32 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.dto.ApiResponse;
+import com.taskmanager.dto.SyncDTO;
+import com.taskmanager.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    // Without "since" the response starts a full snapshot (reset=true); pass back "cursor" on the next call
+    @GetMapping
+    public ResponseEntity<ApiResponse<SyncDTO.Changes>> getChanges(
+            @RequestParam(required = false) String since) {
+        try {
+            SyncDTO.Changes changes = syncService.getChanges(since);
+            return ResponseEntity.ok(ApiResponse.success(changes));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package com.taskmanager.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.taskmanager.dto.ApiResponse;
+import com.taskmanager.dto.BulkDTO;
 import com.taskmanager.dto.TaskDTO;
 import com.taskmanager.entity.Task;
+import com.taskmanager.service.ETags;
+import com.taskmanager.service.PreconditionFailedException;
 import com.taskmanager.service.TaskService;
+import com.taskmanager.web.JsonListWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.UUID;
 
 @RestController
@@ -19,39 +28,54 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private JsonListWriter jsonListWriter;
+
     @GetMapping("/test")
     public String test() {
         return "controller ok";
     }
 
+    // Streamed: the list is written row by row as it is read, never materialized as entities
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Task>>> getAllTasks(
+    public void getAllTasks(
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String search) {
-        try {
-            List<Task> tasks;
-
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+        // cursor or limit selects keyset pages; without them the full list is kept for existing clients
+        if (cursor != null || limit != null) {
+            jsonListWriter.writeObject(response, ifNoneMatch, taskService::getTasksEtag, () -> {
+                if (search != null || status != null) {
+                    throw new RuntimeException("cursor and limit cannot be combined with status or search");
+                }
+                return taskService.getTasksPage(cursor, limit);
+            });
+            return;
+        }
+        jsonListWriter.<TaskDTO.TaskView>write(response, ifNoneMatch, taskService::getTasksEtag, sink -> {
             if (search != null && !search.isEmpty()) {
-                tasks = taskService.searchTasks(search);
-            } else if (status != null) {
-                Boolean completed = status.equals("completed");
-                tasks = taskService.getTasksByStatus(completed);
+                taskService.searchTasks(search).forEach(task -> sink.accept(TaskDTO.TaskView.from(task)));
             } else {
-                tasks = taskService.getAllTasks();
+                Boolean completed = status != null ? status.equals("completed") : null;
+                taskService.streamTasks(completed, sink);
             }
-
-            return ResponseEntity.ok(ApiResponse.success(tasks));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error(e.getMessage()));
-        }
+        });
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Task>> getTaskById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<Task>> getTaskById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             Task task = taskService.getTaskById(id);
-            return ResponseEntity.ok(ApiResponse.success(task));
+            String etag = ETags.of(task.getVersion(), task.getTags());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(task));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -63,7 +87,9 @@ public class TaskController {
             @Valid @RequestBody TaskDTO.CreateTaskRequest request) {
         try {
             Task task = taskService.createTask(request);
-            return ResponseEntity.ok(ApiResponse.success("Task created successfully", task));
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(task.getVersion(), task.getTags()))
+                    .body(ApiResponse.success("Task created successfully", task));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -73,10 +99,42 @@ public class TaskController {
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<Task>> updateTask(
             @PathVariable UUID id,
-            @Valid @RequestBody TaskDTO.UpdateTaskRequest request) {
+            @Valid @RequestBody TaskDTO.UpdateTaskRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Task task = taskService.updateTask(id, request, ETags.requiredVersion(ifMatch));
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(task.getVersion(), task.getTags()))
+                    .body(ApiResponse.success("Task updated successfully", task));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Task was modified concurrently, reload and retry"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    // JSON merge patch (application/merge-patch+json or application/json): only the given fields are written
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<Task>> patchTask(
+            @PathVariable UUID id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Task task = taskService.updateTask(id, request);
-            return ResponseEntity.ok(ApiResponse.success("Task updated successfully", task));
+            Task task = taskService.patchTask(id, patch, ETags.requiredVersion(ifMatch));
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(task.getVersion(), task.getTags()))
+                    .body(ApiResponse.success("Task updated successfully", task));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Task was modified concurrently, reload and retry"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -84,10 +142,15 @@ public class TaskController {
     }
 
     @PatchMapping("/{id}/toggle")
-    public ResponseEntity<ApiResponse<Task>> toggleTaskCompletion(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<TaskDTO.TaskSummary>> toggleTaskCompletion(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Task task = taskService.toggleTaskCompletion(id);
+            TaskDTO.TaskSummary task = taskService.toggleTaskCompletion(id, ETags.requiredVersion(ifMatch));
             return ResponseEntity.ok(ApiResponse.success("Task status updated", task));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -104,4 +167,53 @@ public class TaskController {
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkDTO.BulkResult>> createTasks(
+            @Valid @RequestBody TaskDTO.BulkCreateTaskRequest request) {
+        try {
+            BulkDTO.BulkResult result = taskService.createTasks(request.getItems());
+            return ResponseEntity.ok(ApiResponse.success("Tasks created", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkDTO.BulkResult>> updateTasks(
+            @Valid @RequestBody TaskDTO.BulkUpdateTaskRequest request) {
+        try {
+            BulkDTO.BulkResult result = taskService.updateTasks(request.getItems());
+            return ResponseEntity.ok(ApiResponse.success("Tasks updated", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/bulk/toggle")
+    public ResponseEntity<ApiResponse<BulkDTO.BulkResult>> toggleTasks(
+            @Valid @RequestBody BulkDTO.IdsRequest request) {
+        try {
+            BulkDTO.BulkResult result = taskService.toggleTasks(request.getIds());
+            return ResponseEntity.ok(ApiResponse.success("Task statuses updated", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    // POST rather than DELETE: request bodies on DELETE are dropped by some clients and proxies
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<ApiResponse<BulkDTO.BulkResult>> deleteTasks(
+            @Valid @RequestBody BulkDTO.IdsRequest request) {
+        try {
+            BulkDTO.BulkResult result = taskService.deleteTasks(request.getIds());
+            return ResponseEntity.ok(ApiResponse.success("Tasks deleted", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.taskmanager.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmanager.cache.Invalidation;
+import com.taskmanager.event.ChangeEvent;
+import com.taskmanager.security.AuthenticatedUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Remembers which users committed a write within the last few seconds so their reads skip the replicas
+ * until replication has caught up. Every service write publishes a {@link ChangeEvent}, which is what
+ * starts the window. Writes on other nodes start it too when their invalidations arrive: the caches have
+ * just evicted that user's entries, and reloading them from a lagging replica would cache the old rows.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<UUID, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(long windowMs) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMs))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        recentWriters.put(event.userId(), Boolean.TRUE);
+    }
+
+    public void onRemote(List<Invalidation> batch) {
+        for (Invalidation invalidation : batch) {
+            switch (invalidation.type()) {
+                case ChangeEvent.TASK, ChangeEvent.NOTE, ChangeEvent.TAG ->
+                        recentWriters.put(invalidation.userId(), Boolean.TRUE);
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * True when the user of the current request wrote recently. Reads the principal straight from the
+     * SecurityContext: this runs while a connection is being chosen, so it must not query the database.
+     */
+    public boolean currentUserWroteRecently() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return recentWriters.getIfPresent(principal.getId()) != null;
+        }
+        return false;
+    }
+}
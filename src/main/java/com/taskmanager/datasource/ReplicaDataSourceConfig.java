@@ -0,0 +1,94 @@
+package com.taskmanager.datasource;
+
+import com.taskmanager.cache.InvalidationBus;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource once at least one {@code app.datasource.replicas[n].url} is set.
+ * Without replicas the application keeps Spring Boot's single Hikari pool.
+ * <p>
+ * The primary pool is still configured through {@code spring.datasource.*}; every pool reports
+ * {@code hikaricp.*} meters under its own pool name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return primary;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaProperties replicaProperties) {
+        return new ReadYourWritesTracker(replicaProperties.getReadYourWritesMs());
+    }
+
+    // Subscribed once all singletons exist: the Postgres bus itself depends on this data source
+    @Bean
+    public SmartInitializingSingleton readYourWritesSubscription(ReadYourWritesTracker tracker,
+                                                                 InvalidationBus invalidationBus) {
+        return () -> invalidationBus.subscribe(tracker::onRemote);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                     DataSourceProperties properties,
+                                                     ReplicaProperties replicaProperties,
+                                                     ReadYourWritesTracker tracker,
+                                                     MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<ReplicaProperties.Replica> configured = replicaProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaProperties.Replica settings = configured.get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(settings.getUrl());
+            replica.setUsername(settings.getUsername() != null ? settings.getUsername() : properties.determineUsername());
+            replica.setPassword(settings.getPassword() != null ? settings.getPassword() : properties.determinePassword());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(settings.getMaximumPoolSize() != null
+                    ? settings.getMaximumPoolSize() : primaryDataSource.getMaximumPoolSize());
+            // An unset minimum-idle reads as -1 until the pool starts; Hikari then treats it as the pool size
+            int minimumIdle = primaryDataSource.getMinimumIdle();
+            replica.setMinimumIdle(minimumIdle < 0
+                    ? replica.getMaximumPoolSize() : Math.min(minimumIdle, replica.getMaximumPoolSize()));
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            // A write that slips through to a replica fails loudly instead of silently diverging
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, tracker, meterRegistry);
+    }
+
+    /**
+     * What JPA, the SQL initializer and the health check see. The lazy proxy hands out a placeholder
+     * connection and only picks the real pool at the first statement, after the read-only flag is bound.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas under {@code app.datasource}. Username, password and pool size default to the primary's.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // How long a user's reads stay on the primary after one of their writes commits
+    private long readYourWritesMs = 5000;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private Integer maximumPoolSize;
+    }
+}
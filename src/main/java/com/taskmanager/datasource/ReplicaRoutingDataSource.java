@@ -0,0 +1,82 @@
+package com.taskmanager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of {@code @Transactional(readOnly = true)} work to the replica pools, round-robin,
+ * and everything else to the primary.
+ * <p>
+ * The read-only flag is only bound after the transaction manager has begun the transaction, so this must
+ * sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that defers the
+ * lookup to the first statement. Reads by a user who wrote within the read-your-writes window stay on
+ * the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final List<HikariDataSource> replicas = new ArrayList<>();
+    private final Map<String, Counter> routed = new HashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ReadYourWritesTracker tracker;
+    private final Counter stickyReads;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    ReadYourWritesTracker tracker, MeterRegistry meterRegistry) {
+        this.tracker = tracker;
+        this.replicas.addAll(replicas);
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        for (HikariDataSource replica : replicas) {
+            targets.put(replica.getPoolName(), replica);
+            replicaKeys.add(replica.getPoolName());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        for (Object key : targets.keySet()) {
+            routed.put((String) key, Counter.builder("app.datasource.routed")
+                    .description("Connections handed out per pool")
+                    .tag("pool", (String) key)
+                    .register(meterRegistry));
+        }
+        stickyReads = Counter.builder("app.datasource.sticky_reads")
+                .description("Read-only transactions kept on the primary after a recent write by the same user")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = PRIMARY;
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !replicaKeys.isEmpty()) {
+            if (tracker.currentUserWroteRecently()) {
+                stickyReads.increment();
+            } else {
+                key = replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+            }
+        }
+        routed.get(key).increment();
+        return key;
+    }
+
+    @Override
+    public void destroy() {
+        // The primary is a bean of its own; the replica pools were created here
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,57 @@
+package com.taskmanager.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs repository calls slower than {@code app.metrics.slow-query-ms} and counts them as
+ * {@code app.db.slow_queries{repository,method}}. Every call is already timed by Spring Boot as
+ * {@code spring.data.repository.invocations}; the SQL text of slow statements comes from Hibernate's
+ * own slow-query log (hibernate.log_slow_query), including queries issued outside repositories.
+ * <p>
+ * For methods returning a Stream the time covers opening the cursor, not consuming it.
+ */
+@Component
+public class SlowQueryLogger implements BeanPostProcessor, RepositoryMethodInvocationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLogger.class);
+
+    // Resolved lazily: post-processors are created before the registry is ready
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${app.metrics.slow-query-ms:500}")
+    private long thresholdMs;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean && thresholdMs > 0) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(this));
+        }
+        return bean;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        long millis = invocation.getDuration(TimeUnit.MILLISECONDS);
+        if (millis < thresholdMs) {
+            return;
+        }
+        String repository = invocation.getRepositoryInterface().getSimpleName();
+        String method = invocation.getMethod().getName();
+        log.warn("Slow query: {}.{} took {} ms ({})", repository, method, millis,
+                invocation.getResult().getState());
+        meterRegistry.getObject().counter("app.db.slow_queries", "repository", repository, "method", method)
+                .increment();
+    }
+}
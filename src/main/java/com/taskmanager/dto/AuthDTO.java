@@ -30,9 +30,17 @@ public class AuthDTO {
         private String fullName;
     }
 
+    @Data
+    public static class RefreshRequest {
+        @NotBlank(message = "Refresh token is required")
+        private String refreshToken;
+    }
+
     @Data
     public static class AuthResponse {
         private String token;
+        private String refreshToken;
+        private Long expiresIn;   // access token lifetime in milliseconds
         private String email;
         private String fullName;
         private String userId;
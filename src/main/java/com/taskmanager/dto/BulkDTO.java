@@ -0,0 +1,53 @@
+package com.taskmanager.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class BulkDTO {
+
+    @Data
+    public static class IdsRequest {
+        @NotEmpty(message = "ids are required")
+        private List<UUID> ids;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Integer index;
+        private UUID id;
+        private Boolean success;
+        private String error;
+
+        public static ItemResult ok(int index, UUID id) {
+            return new ItemResult(index, id, true, null);
+        }
+
+        public static ItemResult failed(int index, UUID id, String error) {
+            return new ItemResult(index, id, false, error);
+        }
+    }
+
+    @Data
+    public static class BulkResult {
+        private List<ItemResult> results = new ArrayList<>();
+        private Integer succeeded = 0;
+        private Integer failed = 0;
+
+        public void add(ItemResult result) {
+            results.add(result);
+            if (Boolean.TRUE.equals(result.getSuccess())) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package com.taskmanager.dto;
 
+import com.taskmanager.entity.Note;
+import com.taskmanager.repository.NoteRepository;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -23,4 +32,63 @@ public class NoteDTO {
         private Boolean isPinned;
         private Set<UUID> tagIds;
     }
-}
\ No newline at end of file
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class BulkNotePatch extends UpdateNoteRequest {
+        @NotNull(message = "Id is required")
+        private UUID id;
+    }
+
+    @Data
+    public static class BulkCreateNoteRequest {
+        @NotEmpty(message = "items are required")
+        private List<@Valid CreateNoteRequest> items;
+    }
+
+    @Data
+    public static class BulkUpdateNoteRequest {
+        @NotEmpty(message = "items are required")
+        private List<@Valid BulkNotePatch> items;
+    }
+
+    // Note without its tags; built straight from the row returned by a set-based UPDATE
+    @Data
+    @AllArgsConstructor
+    public static class NoteSummary {
+        private UUID id;
+        private String title;
+        private String content;
+        private Boolean isPinned;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+
+        public static NoteSummary from(Note note) {
+            return new NoteSummary(note.getId(), note.getTitle(), note.getContent(), note.getIsPinned(),
+                    note.getCreatedAt(), note.getUpdatedAt());
+        }
+    }
+
+    // List item with the same JSON as the Note entity; streamed from a projection, never a managed entity
+    @Data
+    @AllArgsConstructor
+    public static class NoteView {
+        private UUID id;
+        private String title;
+        private String content;
+        private Boolean isPinned;
+        private List<TagDTO.TagView> tags;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+
+        public static NoteView of(NoteRepository.NoteRow row, List<TagDTO.TagView> tags) {
+            return new NoteView(row.getId(), row.getTitle(), row.getContent(), row.getIsPinned(), tags,
+                    row.getCreatedAt(), row.getUpdatedAt());
+        }
+
+        public static NoteView from(Note note) {
+            return new NoteView(note.getId(), note.getTitle(), note.getContent(), note.getIsPinned(),
+                    note.getTags().stream().map(TagDTO.TagView::from).toList(), note.getCreatedAt(), note.getUpdatedAt());
+        }
+    }
+}
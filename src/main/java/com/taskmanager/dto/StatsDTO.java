@@ -0,0 +1,35 @@
+package com.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+public class StatsDTO {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Statistics {
+        private TaskStats tasks;
+        private NoteStats notes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskStats {
+        private Long total;
+        private Long completed;
+        private Long active;
+        private Double completionRate;
+        private Long highPriority;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NoteStats {
+        private Long total;
+        private Long pinned;
+    }
+}
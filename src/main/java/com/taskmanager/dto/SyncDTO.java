@@ -0,0 +1,40 @@
+package com.taskmanager.dto;
+
+import com.taskmanager.entity.Note;
+import com.taskmanager.entity.Tag;
+import com.taskmanager.entity.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public class SyncDTO {
+
+    /**
+     * One page of changes. Clients upsert tasks/notes/tags, drop deleted ids (a deleted tag also disappears
+     * from every task and note carrying it) and call again with {@code cursor}, immediately while
+     * {@code hasMore} is set. Changes may be repeated across pages; applying them is idempotent.
+     * {@code reset} means the response starts a full snapshot and local state should be discarded.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Changes {
+        private List<Task> tasks;
+        private List<Note> notes;
+        private List<Tag> tags;
+        private List<Deletion> deleted;
+        private String cursor;
+        private boolean hasMore;
+        private boolean reset;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Deletion {
+        private String type;
+        private UUID id;
+        private LocalDateTime deletedAt;
+    }
+}
@@ -1,9 +1,15 @@
 package com.taskmanager.dto;
 
+import com.taskmanager.entity.Tag;
+import com.taskmanager.repository.TagLink;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+import java.util.UUID;
+
 public class TagDTO {
 
     @Data
@@ -22,4 +28,23 @@ public class TagDTO {
         @Pattern(regexp = "^#([A-Fa-f0-9]{6})$", message = "Color must be valid hex format")
         private String color;
     }
-}
\ No newline at end of file
+
+    // Same JSON as the Tag entity, built without one
+    @Data
+    @AllArgsConstructor
+    public static class TagView {
+        private UUID id;
+        private String name;
+        private String color;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+
+        public static TagView from(Tag tag) {
+            return new TagView(tag.getId(), tag.getName(), tag.getColor(), tag.getCreatedAt(), tag.getUpdatedAt());
+        }
+
+        public static TagView from(TagLink link) {
+            return new TagView(link.getId(), link.getName(), link.getColor(), link.getCreatedAt(), link.getUpdatedAt());
+        }
+    }
+}
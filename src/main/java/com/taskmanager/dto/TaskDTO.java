@@ -1,9 +1,18 @@
 package com.taskmanager.dto;
 
+import com.taskmanager.entity.Task;
+import com.taskmanager.repository.TaskRepository;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -28,4 +37,68 @@ public class TaskDTO {
         private LocalDate dueDate;
         private Set<UUID> tagIds;
     }
-}
\ No newline at end of file
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class BulkTaskPatch extends UpdateTaskRequest {
+        @NotNull(message = "Id is required")
+        private UUID id;
+    }
+
+    @Data
+    public static class BulkCreateTaskRequest {
+        @NotEmpty(message = "items are required")
+        private List<@Valid CreateTaskRequest> items;
+    }
+
+    @Data
+    public static class BulkUpdateTaskRequest {
+        @NotEmpty(message = "items are required")
+        private List<@Valid BulkTaskPatch> items;
+    }
+
+    // Task without its tags; built straight from the row returned by a set-based UPDATE
+    @Data
+    @AllArgsConstructor
+    public static class TaskSummary {
+        private UUID id;
+        private String title;
+        private String description;
+        private String priority;
+        private Boolean completed;
+        private LocalDate dueDate;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+
+        public static TaskSummary from(Task task) {
+            return new TaskSummary(task.getId(), task.getTitle(), task.getDescription(), task.getPriority(),
+                    task.getCompleted(), task.getDueDate(), task.getCreatedAt(), task.getUpdatedAt());
+        }
+    }
+
+    // List item with the same JSON as the Task entity; streamed from a projection, never a managed entity
+    @Data
+    @AllArgsConstructor
+    public static class TaskView {
+        private UUID id;
+        private String title;
+        private String description;
+        private String priority;
+        private Boolean completed;
+        private LocalDate dueDate;
+        private List<TagDTO.TagView> tags;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+
+        public static TaskView of(TaskRepository.TaskRow row, List<TagDTO.TagView> tags) {
+            return new TaskView(row.getId(), row.getTitle(), row.getDescription(), row.getPriority(),
+                    row.getCompleted(), row.getDueDate(), tags, row.getCreatedAt(), row.getUpdatedAt());
+        }
+
+        public static TaskView from(Task task) {
+            return new TaskView(task.getId(), task.getTitle(), task.getDescription(), task.getPriority(),
+                    task.getCompleted(), task.getDueDate(), task.getTags().stream().map(TagDTO.TagView::from).toList(),
+                    task.getCreatedAt(), task.getUpdatedAt());
+        }
+    }
+}
@@ -4,8 +4,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -14,7 +17,12 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "notes")
+@Table(name = "notes", indexes = {
+        @Index(name = "idx_notes_user_pinned_created", columnList = "user_id, is_pinned DESC, created_at DESC, id DESC"),
+        @Index(name = "idx_notes_user_updated", columnList = "user_id, updated_at, id")
+})
+// UPDATE statements list only the dirty columns (PUT/PATCH typically change one or two fields)
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +35,8 @@ public class Note {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User user;
 
     @Column(nullable = false)
@@ -35,17 +45,25 @@ public class Note {
     @Column(columnDefinition = "TEXT")
     private String content;
 
-    @Column(name = "is_pinned")
+    @Column(name = "is_pinned", nullable = false)
     private Boolean isPinned = false;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Lazy: note lists attach tags from NoteRepository.findTagLinks or fetchTags, one query per page
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "note_tags",
             joinColumns = @JoinColumn(name = "note_id"),
             inverseJoinColumns = @JoinColumn(name = "tag_id")
     )
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Tag> tags = new HashSet<>();
 
+    // Optimistic locking; also the basis of the resource's ETag
+    @Version
+    @JsonIgnore
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
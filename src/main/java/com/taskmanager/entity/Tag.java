@@ -4,8 +4,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -13,6 +16,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "tags", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"user_id", "name"})
+}, indexes = {
+        @Index(name = "idx_tags_user_updated", columnList = "user_id, updated_at, id")
 })
 @Data
 @NoArgsConstructor
@@ -26,6 +31,8 @@ public class Tag {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User user;
 
     @Column(nullable = false, length = 50)
@@ -34,7 +41,16 @@ public class Tag {
     @Column(length = 7)
     private String color = "#3b82f6";
 
+    // Optimistic locking; also the basis of the resource's ETag
+    @Version
+    @JsonIgnore
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
-}
\ No newline at end of file
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
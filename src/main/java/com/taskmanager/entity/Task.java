@@ -4,8 +4,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -15,7 +18,12 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_user_created", columnList = "user_id, created_at DESC, id DESC"),
+        @Index(name = "idx_tasks_user_updated", columnList = "user_id, updated_at, id")
+})
+// UPDATE statements list only the dirty columns (PUT/PATCH typically change one or two fields)
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,6 +36,8 @@ public class Task {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User user;
 
     @Column(nullable = false)
@@ -44,14 +54,22 @@ public class Task {
     @Column(name = "due_date")
     private LocalDate dueDate;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Lazy: task pages and sync load the tags of all their tasks in one TaskRepository.fetchTags query
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "task_tags",
             joinColumns = @JoinColumn(name = "task_id"),
             inverseJoinColumns = @JoinColumn(name = "tag_id")
     )
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Tag> tags = new HashSet<>();
 
+    // Optimistic locking; also the basis of the resource's ETag
+    @Version
+    @JsonIgnore
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,27 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Token version of a user who has signed out everywhere; users without a row are at version 0.
+ * Only read at startup to rebuild the in-memory versions of {@code PersistentTokenVersionStore}.
+ */
+@Entity
+@Table(name = "token_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(nullable = false)
+    private long version;
+}
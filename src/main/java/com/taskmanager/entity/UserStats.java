@@ -0,0 +1,43 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Materialized per-user counters behind /stats.
+ * Maintained incrementally by TaskService/NoteService and reconciled periodically by UserStatsService.
+ */
+@Entity
+@Table(name = "user_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "task_total", nullable = false)
+    private long taskTotal;
+
+    @Column(name = "task_completed", nullable = false)
+    private long taskCompleted;
+
+    @Column(name = "task_high_priority", nullable = false)
+    private long taskHighPriority;
+
+    @Column(name = "note_total", nullable = false)
+    private long noteTotal;
+
+    @Column(name = "note_pinned", nullable = false)
+    private long notePinned;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,33 @@
+package com.taskmanager.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * A committed change to one of a user's tasks, notes or tags.
+ * Services publish it through Spring's ApplicationEventPublisher inside the writing transaction;
+ * listeners use {@code @TransactionalEventListener(AFTER_COMMIT)} so rolled-back writes are never seen.
+ */
+public record ChangeEvent(@JsonIgnore UUID userId, String type, UUID id, Action action, LocalDateTime at) {
+
+    public static final String TASK = "task";
+    public static final String NOTE = "note";
+    public static final String TAG = "tag";
+
+    public enum Action {
+        CREATED, UPDATED, DELETED;
+
+        @JsonValue
+        public String json() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static ChangeEvent of(UUID userId, String type, UUID id, Action action) {
+        return new ChangeEvent(userId, type, id, action, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,300 @@
+package com.taskmanager.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of committed {@link ChangeEvent}s to the subscribers of the same user.
+ * <p>
+ * Publishing never blocks on a subscriber: each one has a bounded buffer that a small dispatcher pool
+ * drains. When a slow subscriber's buffer is full the oldest event is dropped and the next delivery is
+ * flagged as overflowed, telling the client to catch up through GET /sync.
+ * <p>
+ * A send still running after {@code app.events.send-timeout-ms} (a client that stopped reading while its
+ * socket buffers are full) is caught by the heartbeat: the subscription is dropped and its sink aborted.
+ * The dispatcher thread blocked in that write is released when the container's write timeout
+ * (server.tomcat.connection-timeout) fails it.
+ */
+@Component
+public class ChangeEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeEventBus.class);
+
+    /**
+     * Receives batches on a dispatcher thread; an exception ends the subscription.
+     */
+    public interface Sink {
+        void send(List<ChangeEvent> events, boolean overflowed) throws Exception;
+
+        void heartbeat() throws Exception;
+
+        /**
+         * Ends the stream from outside the dispatcher, typically while a send is still blocked in it.
+         */
+        void abort(Exception cause);
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.events.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${app.events.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.events.max-subscribers-per-user:10}")
+    private int maxSubscribersPerUser;
+
+    @Value("${app.events.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final Map<UUID, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private ExecutorService dispatcher;
+    // Aborting may wait for the lock held by the stalled send, so it never runs on the scheduler thread
+    private ExecutorService aborter;
+
+    private Counter delivered;
+    private Counter dropped;
+    private Counter stalled;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIds = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "event-dispatch-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        aborter = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "event-abort-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("app.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open change-stream subscriptions")
+                .register(meterRegistry);
+        delivered = Counter.builder("app.events.delivered")
+                .description("Change events written to subscribers")
+                .register(meterRegistry);
+        dropped = Counter.builder("app.events.dropped")
+                .description("Change events dropped from full subscriber buffers")
+                .register(meterRegistry);
+        stalled = Counter.builder("app.events.stalled")
+                .description("Subscriptions closed because a send ran past the send timeout")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        aborter.shutdownNow();
+    }
+
+    /**
+     * Returns null when the node or the user is at the subscription limit.
+     */
+    public Subscription subscribe(UUID userId, Sink sink) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+
+        Subscription subscription = new Subscription(userId, sink, bufferSize);
+        boolean[] accepted = new boolean[1];
+        subscriptions.compute(userId, (id, current) -> {
+            Set<Subscription> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxSubscribersPerUser) {
+                set.add(subscription);
+                accepted[0] = true;
+            }
+            return set;
+        });
+        if (!accepted[0]) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriptions.computeIfPresent(subscription.userId, (id, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        Set<Subscription> targets = subscriptions.get(event.userId());
+        if (targets == null) {
+            return;
+        }
+        for (Subscription subscription : targets) {
+            if (!subscription.offer(event)) {
+                dropped.increment();
+            }
+            schedule(subscription);
+        }
+    }
+
+    // Keeps idle streams alive through proxies and detects clients that went away without closing
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Set<Subscription> set : subscriptions.values()) {
+            for (Subscription subscription : set) {
+                if (subscription.sendingFor(now) > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+                    abort(subscription);
+                    continue;
+                }
+                subscription.heartbeatDue = true;
+                schedule(subscription);
+            }
+        }
+    }
+
+    private void abort(Subscription subscription) {
+        log.info("Change stream for user {} stalled for more than {} ms; closing it",
+                subscription.userId, sendTimeoutMs);
+        unsubscribe(subscription);
+        stalled.increment();
+        TimeoutException cause = new TimeoutException("Send stalled for more than " + sendTimeoutMs + " ms");
+        aborter.execute(() -> subscription.sink.abort(cause));
+    }
+
+    private void schedule(Subscription subscription) {
+        if (subscription.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            while (!subscription.closed.get()) {
+                Subscription.Batch batch = subscription.take();
+                if (batch == null) {
+                    subscription.draining.set(false);
+                    // An event offered after take() but before the flag was cleared would otherwise wait
+                    if (!subscription.hasPending() || !subscription.draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                subscription.sendStarted = System.nanoTime();
+                subscription.sending = true;
+                try {
+                    if (batch.events().isEmpty() && !batch.overflowed()) {
+                        subscription.sink.heartbeat();
+                    } else {
+                        subscription.sink.send(batch.events(), batch.overflowed());
+                        delivered.increment(batch.events().size());
+                    }
+                } finally {
+                    subscription.sending = false;
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Change stream for user {} closed: {}", subscription.userId, e.getMessage());
+            unsubscribe(subscription);
+        }
+    }
+
+    public static final class Subscription {
+        private final UUID userId;
+        private final Sink sink;
+        private final int capacity;
+        private final ArrayDeque<ChangeEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private boolean overflowed;
+        private volatile boolean heartbeatDue;
+        private volatile long sendStarted;
+        private volatile boolean sending;
+
+        private Subscription(UUID userId, Sink sink, int capacity) {
+            this.userId = userId;
+            this.sink = sink;
+            this.capacity = capacity;
+            this.buffer = new ArrayDeque<>(Math.min(capacity, 16));
+        }
+
+        // Returns false when an older event had to be dropped to make room
+        private synchronized boolean offer(ChangeEvent event) {
+            boolean kept = true;
+            if (buffer.size() >= capacity) {
+                buffer.pollFirst();
+                overflowed = true;
+                kept = false;
+            }
+            buffer.addLast(event);
+            return kept;
+        }
+
+        // Nanoseconds the current send has been running, or 0 when none is in progress
+        private long sendingFor(long now) {
+            return sending ? now - sendStarted : 0;
+        }
+
+        private synchronized boolean hasPending() {
+            return !buffer.isEmpty() || overflowed || heartbeatDue;
+        }
+
+        private synchronized Batch take() {
+            if (buffer.isEmpty() && !overflowed) {
+                if (!heartbeatDue) {
+                    return null;
+                }
+                heartbeatDue = false;
+                return new Batch(List.of(), false);
+            }
+            Batch batch = new Batch(new ArrayList<>(buffer), overflowed);
+            buffer.clear();
+            overflowed = false;
+            heartbeatDue = false;
+            return batch;
+        }
+
+        private record Batch(List<ChangeEvent> events, boolean overflowed) {
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.taskmanager.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-node buckets ({@code app.rate-limit.backend=memory}, the default).
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the GCRA form of a token bucket), so acquiring is one CAS with no lock and no refill bookkeeping.
+ * Buckets live in a size-bounded Caffeine map and are dropped after {@code idle-seconds} without use.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, AtomicLong> buckets;
+
+    // Replaced by tests to drive time by hand
+    LongSupplier nanoClock = System::nanoTime;
+
+    @PostConstruct
+    public void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(Duration.ofSeconds(properties.getIdleSeconds()))
+                .build();
+        Gauge.builder("app.rate_limit.buckets", buckets, Cache::estimatedSize)
+                .description("Rate-limit buckets held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long interval = (long) (1_000_000_000L / limit.getRefillPerSecond());
+        long burst = interval * limit.getCapacity();
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = fullAt.get();
+            // A bucket that filled up in the past is simply full now
+            long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + interval;
+            if (next - now > burst) {
+                return next - now - burst;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.taskmanager.ratelimit;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request limits under {@code app.rate-limit}. A request is charged to the first route it matches,
+ * or to {@code default-limit} when none does; each route keeps its own buckets. Limits are checked when
+ * bound: a zero capacity or refill rate would fail the startup rather than every request.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled;
+
+    @Valid
+    private Limit defaultLimit = new Limit();
+
+    @Valid
+    private List<Route> routes = new ArrayList<>();
+
+    // Buckets idle this long are dropped; a dropped bucket comes back full
+    private long idleSeconds = 600;
+
+    private long maxBuckets = 100_000;
+
+    @Data
+    public static class Limit {
+        @Positive
+        private int capacity = 100;
+        @Positive
+        private double refillPerSecond = 20;
+    }
+
+    @Data
+    public static class Route {
+        private String name;
+        // Ant-style patterns matched against the servlet path (no /api prefix)
+        private List<String> paths = new ArrayList<>();
+        // When set, the route only applies to requests carrying this query parameter
+        private String param;
+        @Valid
+        private Limit limit = new Limit();
+    }
+}
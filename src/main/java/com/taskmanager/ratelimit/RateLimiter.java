@@ -0,0 +1,15 @@
+package com.taskmanager.ratelimit;
+
+/**
+ * Token-bucket store. The in-memory implementation limits each node on its own; a shared backend
+ * (e.g. Redis) implements the same contract to enforce one limit across nodes.
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes one token from the bucket under {@code key}, created full on first use.
+     *
+     * @return 0 when the request may proceed, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(String key, RateLimitProperties.Limit limit);
+}
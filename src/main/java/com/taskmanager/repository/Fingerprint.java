@@ -0,0 +1,15 @@
+package com.taskmanager.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap summary of one user's rows in a table; any insert, update or delete changes at least one member.
+ * Used to build collection ETags without loading the collection.
+ */
+public interface Fingerprint {
+    long getCount();
+
+    LocalDateTime getLastModified();
+
+    long getVersionSum();
+}
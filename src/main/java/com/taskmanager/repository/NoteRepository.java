@@ -2,26 +2,123 @@ package com.taskmanager.repository;
 
 import com.taskmanager.entity.Note;
 import com.taskmanager.entity.User;
+import com.taskmanager.search.SearchDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, UUID> {
-    List<Note> findByUserOrderByIsPinnedDescCreatedAtDesc(User user);
+    // List responses: a server-side cursor over the response columns only, so no entity is ever managed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT n.id AS id, n.title AS title, n.content AS content, n.isPinned AS isPinned, " +
+            "n.createdAt AS createdAt, n.updatedAt AS updatedAt " +
+            "FROM Note n WHERE n.user = :user ORDER BY n.isPinned DESC, n.createdAt DESC")
+    Stream<NoteRow> streamByUser(@Param("user") User user);
+
+    @Query("SELECT n.id AS ownerId, g.id AS id, g.name AS name, g.color AS color, " +
+            "g.createdAt AS createdAt, g.updatedAt AS updatedAt FROM Note n JOIN n.tags g WHERE n.id IN :ids")
+    List<TagLink> findTagLinks(@Param("ids") Collection<UUID> ids);
+
+    // Keyset pagination over (is_pinned, created_at, id), one pinned section at a time
+    @Query("SELECT n FROM Note n WHERE n.user = :user AND n.isPinned = :isPinned " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Note> findFirstPage(@Param("user") User user,
+                             @Param("isPinned") Boolean isPinned,
+                             Pageable pageable);
+
+    @Query("SELECT n FROM Note n WHERE n.user = :user AND n.isPinned = :isPinned AND " +
+            "n.createdAt <= :createdAt AND (n.createdAt < :createdAt OR n.id < :id) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Note> findPageAfter(@Param("user") User user,
+                             @Param("isPinned") Boolean isPinned,
+                             @Param("createdAt") LocalDateTime createdAt,
+                             @Param("id") UUID id,
+                             Pageable pageable);
 
     @Query("SELECT n FROM Note n WHERE n.user = :user AND " +
             "(LOWER(n.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(n.content) LIKE LOWER(CONCAT('%', :search, '%')))")
     List<Note> searchNotes(@Param("user") User user, @Param("search") String search);
 
+    @Query(value = "SELECT n.* FROM notes n " +
+            "WHERE n.user_id = :userId AND n.search_vector @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(n.search_vector, to_tsquery('simple', :query)) DESC, n.created_at DESC",
+            nativeQuery = true)
+    List<Note> fullTextSearch(@Param("userId") UUID userId, @Param("query") String tsQuery);
+
+    @Query("SELECT n.id AS id, n.title AS title, n.content AS body FROM Note n " +
+            "WHERE n.user = :user ORDER BY n.updatedAt")
+    List<SearchDocument> findSearchDocuments(@Param("user") User user);
+
+    List<Note> findByUserAndIdIn(User user, Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = "tags")
     Optional<Note> findByIdAndUser(UUID id, User user);
 
-    Long countByUser(User user);
-    Long countByUserAndIsPinned(User user, Boolean isPinned);
+    // Flips the flag in a single statement and maps the returned row; no prior SELECT, tags are not loaded.
+    // Unless anyVersion is set, only a row still at the expected version is updated (If-Match).
+    @Transactional
+    @Query(value = "UPDATE notes SET is_pinned = NOT COALESCE(is_pinned, false), updated_at = :now, version = version + 1 " +
+            "WHERE id = :id AND user_id = :userId AND (:anyVersion OR version = :expectedVersion) " +
+            "RETURNING id, user_id, title, content, is_pinned, created_at, updated_at, version",
+            nativeQuery = true)
+    Optional<Note> togglePinned(@Param("id") UUID id,
+                                @Param("userId") UUID userId,
+                                @Param("now") LocalDateTime now,
+                                @Param("anyVersion") boolean anyVersion,
+                                @Param("expectedVersion") long expectedVersion);
+
+    // Loads the tags of a whole page in one query; the returned rows are the already-managed instances
+    @Query("SELECT DISTINCT n FROM Note n LEFT JOIN FETCH n.tags WHERE n.id IN :ids")
+    List<Note> fetchTags(@Param("ids") Collection<UUID> ids);
+
+    // Delta sync: rows changed after the (updated_at, id) position, oldest first
+    @Query("SELECT n FROM Note n WHERE n.user = :user AND n.updatedAt >= :updatedAt AND " +
+            "(n.updatedAt > :updatedAt OR n.id > :id) " +
+            "ORDER BY n.updatedAt, n.id")
+    List<Note> findChangedAfter(@Param("user") User user,
+                              @Param("updatedAt") LocalDateTime updatedAt,
+                              @Param("id") UUID id,
+                              Pageable pageable);
+
+    @Query("SELECT COUNT(n) AS count, MAX(n.updatedAt) AS lastModified, COALESCE(SUM(n.version), 0) AS versionSum " +
+            "FROM Note n WHERE n.user = :user")
+    Fingerprint fingerprint(@Param("user") User user);
+
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    // All note counters in one conditional-aggregate query
+    @Query("SELECT COUNT(n) AS total, " +
+            "COALESCE(SUM(CASE WHEN n.isPinned = true THEN 1 ELSE 0 END), 0) AS pinned " +
+            "FROM Note n WHERE n.user = :user")
+    NoteCounts aggregateCounts(@Param("user") User user);
+
+    interface NoteRow {
+        UUID getId();
+        String getTitle();
+        String getContent();
+        Boolean getIsPinned();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface NoteCounts {
+        long getTotal();
+        long getPinned();
+    }
 }
\ No newline at end of file
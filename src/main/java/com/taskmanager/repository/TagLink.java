@@ -0,0 +1,21 @@
+package com.taskmanager.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A tag attached to a task or note ({@code ownerId}), selected as plain columns for list responses.
+ */
+public interface TagLink {
+    UUID getOwnerId();
+
+    UUID getId();
+
+    String getName();
+
+    String getColor();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -2,9 +2,14 @@ package com.taskmanager.repository;
 
 import com.taskmanager.entity.Tag;
 import com.taskmanager.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,5 +18,20 @@ import java.util.UUID;
 public interface TagRepository extends JpaRepository<Tag, UUID> {
     List<Tag> findByUserOrderByCreatedAtDesc(User user);
     Optional<Tag> findByIdAndUser(UUID id, User user);
+    List<Tag> findAllByIdInAndUser(Collection<UUID> ids, User user);
     Optional<Tag> findByUserAndName(User user, String name);
+
+    // Delta sync: rows changed after the (updated_at, id) position, oldest first
+    @Query("SELECT g FROM Tag g WHERE g.user = :user AND g.updatedAt >= :updatedAt AND " +
+            "(g.updatedAt > :updatedAt OR g.id > :id) " +
+            "ORDER BY g.updatedAt, g.id")
+    List<Tag> findChangedAfter(@Param("user") User user,
+                             @Param("updatedAt") LocalDateTime updatedAt,
+                             @Param("id") UUID id,
+                             Pageable pageable);
+
+    // Tags are embedded in task/note payloads, so they take part in those collections' ETags
+    @Query("SELECT COUNT(g) AS count, MAX(g.updatedAt) AS lastModified, COALESCE(SUM(g.version), 0) AS versionSum " +
+            "FROM Tag g WHERE g.user = :user")
+    Fingerprint fingerprint(@Param("user") User user);
 }
\ No newline at end of file
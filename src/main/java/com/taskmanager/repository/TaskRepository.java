@@ -2,26 +2,131 @@ package com.taskmanager.repository;
 
 import com.taskmanager.entity.Task;
 import com.taskmanager.entity.User;
+import com.taskmanager.search.SearchDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, UUID> {
-    List<Task> findByUserOrderByCreatedAtDesc(User user);
-    List<Task> findByUserAndCompletedOrderByCreatedAtDesc(User user, Boolean completed);
+
+    String TASK_ROW = "t.id AS id, t.title AS title, t.description AS description, t.priority AS priority, " +
+            "t.completed AS completed, t.dueDate AS dueDate, t.createdAt AS createdAt, t.updatedAt AS updatedAt";
+
+    // List responses: a server-side cursor over the response columns only, so no entity is ever managed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + TASK_ROW + " FROM Task t WHERE t.user = :user ORDER BY t.createdAt DESC")
+    Stream<TaskRow> streamByUser(@Param("user") User user);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + TASK_ROW + " FROM Task t WHERE t.user = :user AND t.completed = :completed " +
+            "ORDER BY t.createdAt DESC")
+    Stream<TaskRow> streamByUserAndCompleted(@Param("user") User user, @Param("completed") Boolean completed);
+
+    @Query("SELECT t.id AS ownerId, g.id AS id, g.name AS name, g.color AS color, " +
+            "g.createdAt AS createdAt, g.updatedAt AS updatedAt FROM Task t JOIN t.tags g WHERE t.id IN :ids")
+    List<TagLink> findTagLinks(@Param("ids") Collection<UUID> ids);
+
+    // Keyset pagination over (created_at, id); the redundant "<=" bound lets the index seek to the cursor
+    @Query("SELECT t FROM Task t WHERE t.user = :user ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findFirstPage(@Param("user") User user, Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.user = :user AND t.createdAt <= :createdAt AND " +
+            "(t.createdAt < :createdAt OR t.id < :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findPageAfter(@Param("user") User user,
+                             @Param("createdAt") LocalDateTime createdAt,
+                             @Param("id") UUID id,
+                             Pageable pageable);
 
     @Query("SELECT t FROM Task t WHERE t.user = :user AND " +
             "(LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')))")
     List<Task> searchTasks(@Param("user") User user, @Param("search") String search);
 
+    @Query(value = "SELECT t.* FROM tasks t " +
+            "WHERE t.user_id = :userId AND t.search_vector @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(t.search_vector, to_tsquery('simple', :query)) DESC, t.created_at DESC",
+            nativeQuery = true)
+    List<Task> fullTextSearch(@Param("userId") UUID userId, @Param("query") String tsQuery);
+
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS body FROM Task t " +
+            "WHERE t.user = :user ORDER BY t.updatedAt")
+    List<SearchDocument> findSearchDocuments(@Param("user") User user);
+
+    List<Task> findByUserAndIdIn(User user, Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = "tags")
     Optional<Task> findByIdAndUser(UUID id, User user);
 
-    Long countByUserAndCompleted(User user, Boolean completed);
+    // Flips the flag in a single statement and maps the returned row; no prior SELECT, tags are not loaded.
+    // Unless anyVersion is set, only a row still at the expected version is updated (If-Match).
+    @Transactional
+    @Query(value = "UPDATE tasks SET completed = NOT COALESCE(completed, false), updated_at = :now, version = version + 1 " +
+            "WHERE id = :id AND user_id = :userId AND (:anyVersion OR version = :expectedVersion) " +
+            "RETURNING id, user_id, title, description, priority, completed, due_date, created_at, updated_at, version",
+            nativeQuery = true)
+    Optional<Task> toggleCompleted(@Param("id") UUID id,
+                                   @Param("userId") UUID userId,
+                                   @Param("now") LocalDateTime now,
+                                   @Param("anyVersion") boolean anyVersion,
+                                   @Param("expectedVersion") long expectedVersion);
+
+    // Loads the tags of a whole page in one query; the returned rows are the already-managed instances
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.tags WHERE t.id IN :ids")
+    List<Task> fetchTags(@Param("ids") Collection<UUID> ids);
+
+    // Delta sync: rows changed after the (updated_at, id) position, oldest first
+    @Query("SELECT t FROM Task t WHERE t.user = :user AND t.updatedAt >= :updatedAt AND " +
+            "(t.updatedAt > :updatedAt OR t.id > :id) " +
+            "ORDER BY t.updatedAt, t.id")
+    List<Task> findChangedAfter(@Param("user") User user,
+                              @Param("updatedAt") LocalDateTime updatedAt,
+                              @Param("id") UUID id,
+                              Pageable pageable);
+
+    @Query("SELECT COUNT(t) AS count, MAX(t.updatedAt) AS lastModified, COALESCE(SUM(t.version), 0) AS versionSum " +
+            "FROM Task t WHERE t.user = :user")
+    Fingerprint fingerprint(@Param("user") User user);
+
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    // All task counters in one conditional-aggregate query; add a SUM(CASE ...) column for a new counter
+    @Query("SELECT COUNT(t) AS total, " +
+            "COALESCE(SUM(CASE WHEN t.completed = true THEN 1 ELSE 0 END), 0) AS completed, " +
+            "COALESCE(SUM(CASE WHEN t.priority = 'high' THEN 1 ELSE 0 END), 0) AS highPriority " +
+            "FROM Task t WHERE t.user = :user")
+    TaskCounts aggregateCounts(@Param("user") User user);
+
+    interface TaskRow {
+        UUID getId();
+        String getTitle();
+        String getDescription();
+        String getPriority();
+        Boolean getCompleted();
+        LocalDate getDueDate();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface TaskCounts {
+        long getTotal();
+        long getCompleted();
+        long getHighPriority();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.TokenVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Repository
+public interface TokenVersionRepository extends JpaRepository<TokenVersion, UUID> {
+
+    // Atomic across nodes: concurrent bumps for the same user each get their own version
+    @Transactional
+    @Query(value = "INSERT INTO token_versions (user_id, version) VALUES (:userId, 1) " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = token_versions.version + 1 RETURNING version",
+            nativeQuery = true)
+    long increment(@Param("userId") UUID userId);
+}
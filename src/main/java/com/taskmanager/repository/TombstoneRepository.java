@@ -0,0 +1,30 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, UUID> {
+
+    // Delta sync: keyset over (deleted_at, id), oldest first
+    @Query("SELECT t FROM Tombstone t WHERE t.userId = :userId AND t.deletedAt >= :deletedAt AND " +
+            "(t.deletedAt > :deletedAt OR t.id > :id) " +
+            "ORDER BY t.deletedAt, t.id")
+    List<Tombstone> findChangedAfter(@Param("userId") UUID userId,
+                                     @Param("deletedAt") LocalDateTime deletedAt,
+                                     @Param("id") UUID id,
+                                     Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,13 +2,26 @@ package com.taskmanager.repository;
 
 import com.taskmanager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+    // Not read-only: credential lookups stay on the primary so a just-created account can sign in
+    @Transactional
     Optional<User> findByEmail(String email);
-    Boolean existsByEmail(String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :passwordHash, u.updatedAt = LOCAL DATETIME WHERE u.email = :email")
+    int updatePasswordHash(@Param("email") String email, @Param("passwordHash") String passwordHash);
+
+    @Query("SELECT u.id FROM User u")
+    List<UUID> findAllIds();
 }
\ No newline at end of file
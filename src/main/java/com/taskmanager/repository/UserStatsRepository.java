@@ -0,0 +1,38 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.UserStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, UUID> {
+
+    // Atomic in-place increments; returns 0 when the user has no counters row yet
+    @Modifying
+    @Query("UPDATE UserStats s SET " +
+            "s.taskTotal = s.taskTotal + :taskTotal, " +
+            "s.taskCompleted = s.taskCompleted + :taskCompleted, " +
+            "s.taskHighPriority = s.taskHighPriority + :taskHighPriority, " +
+            "s.noteTotal = s.noteTotal + :noteTotal, " +
+            "s.notePinned = s.notePinned + :notePinned, " +
+            "s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.userId = :userId")
+    int applyDelta(@Param("userId") UUID userId,
+                   @Param("taskTotal") long taskTotal,
+                   @Param("taskCompleted") long taskCompleted,
+                   @Param("taskHighPriority") long taskHighPriority,
+                   @Param("noteTotal") long noteTotal,
+                   @Param("notePinned") long notePinned);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserStats s WHERE s.userId = :userId")
+    Optional<UserStats> findForUpdate(@Param("userId") UUID userId);
+}
@@ -0,0 +1,196 @@
+package com.taskmanager.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over one user's documents of one kind (tasks or notes).
+ * <p>
+ * Documents get increasing int ordinals and posting lists are primitive int arrays in ordinal order.
+ * Re-indexing or removing a document only clears its ordinal in {@code live}; dead ordinals are dropped
+ * by {@link #compact()} once they outnumber the live ones. Not thread-safe; callers guard it with a lock.
+ * <p>
+ * CJK text has no spaces between words, so runs of CJK characters are indexed as every single character
+ * and every overlapping pair; a query run matches when all of its pairs do, which finds '牛奶' in '买牛奶'.
+ */
+class InvertedIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern CJK_RUN = Pattern.compile("[\\p{IsHan}\\p{IsHiragana}\\p{IsKatakana}\\p{IsHangul}]+");
+
+    private final TreeMap<String, IntList> postings = new TreeMap<>();
+    private final Map<UUID, Integer> ordinalById = new HashMap<>();
+    private final List<UUID> idByOrdinal = new ArrayList<>();
+    private final BitSet live = new BitSet();
+
+    void put(UUID id, String title, String body) {
+        remove(id);
+
+        int ordinal = idByOrdinal.size();
+        idByOrdinal.add(id);
+        ordinalById.put(id, ordinal);
+        live.set(ordinal);
+
+        for (String token : tokenize(title, body, true)) {
+            postings.computeIfAbsent(token, t -> new IntList()).add(ordinal);
+        }
+
+        if (idByOrdinal.size() - ordinalById.size() > Math.max(1024, ordinalById.size())) {
+            compact();
+        }
+    }
+
+    void remove(UUID id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal != null) {
+            live.clear(ordinal);
+        }
+    }
+
+    /**
+     * Returns ids of documents where every query term prefix-matches some token, most recently indexed first.
+     */
+    List<UUID> search(String query) {
+        Set<String> terms = tokenize(query, null, false);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        BitSet matches = null;
+        for (String term : terms) {
+            BitSet termMatches = new BitSet(idByOrdinal.size());
+            // Every token starting with the term: a contiguous range of the sorted token map
+            for (IntList list : postings.subMap(term, term + Character.MAX_VALUE).values()) {
+                for (int i = 0; i < list.size; i++) {
+                    termMatches.set(list.values[i]);
+                }
+            }
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.and(termMatches);
+            }
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+        }
+        matches.and(live);
+
+        List<UUID> ids = new ArrayList<>(matches.cardinality());
+        for (int ordinal = matches.previousSetBit(idByOrdinal.size()); ordinal >= 0;
+             ordinal = matches.previousSetBit(ordinal - 1)) {
+            ids.add(idByOrdinal.get(ordinal));
+        }
+        return ids;
+    }
+
+    // Renumbers live documents densely and drops dead ordinals from every posting list
+    private void compact() {
+        int[] remap = new int[idByOrdinal.size()];
+        List<UUID> compacted = new ArrayList<>(ordinalById.size());
+        for (int ordinal = 0; ordinal < idByOrdinal.size(); ordinal++) {
+            if (live.get(ordinal)) {
+                remap[ordinal] = compacted.size();
+                compacted.add(idByOrdinal.get(ordinal));
+            } else {
+                remap[ordinal] = -1;
+            }
+        }
+
+        postings.values().removeIf(list -> {
+            list.retainAndRemap(remap);
+            return list.size == 0;
+        });
+
+        idByOrdinal.clear();
+        idByOrdinal.addAll(compacted);
+        ordinalById.clear();
+        live.clear();
+        for (int ordinal = 0; ordinal < compacted.size(); ordinal++) {
+            ordinalById.put(compacted.get(ordinal), ordinal);
+            live.set(ordinal);
+        }
+    }
+
+    // Documents also index single CJK characters so that one-character queries match inside longer runs
+    static Set<String> tokenize(String first, String second, boolean document) {
+        Set<String> tokens = new LinkedHashSet<>();
+        addTokens(tokens, first, document);
+        addTokens(tokens, second, document);
+        return tokens;
+    }
+
+    private static void addTokens(Set<String> tokens, String text, boolean document) {
+        if (text == null) {
+            return;
+        }
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            Matcher cjk = CJK_RUN.matcher(token);
+            int end = 0;
+            while (cjk.find()) {
+                addWord(tokens, token.substring(end, cjk.start()));
+                addCjkRun(tokens, cjk.group(), document);
+                end = cjk.end();
+            }
+            addWord(tokens, token.substring(end));
+        }
+    }
+
+    private static void addWord(Set<String> tokens, String word) {
+        if (!word.isEmpty()) {
+            tokens.add(word);
+        }
+    }
+
+    private static void addCjkRun(Set<String> tokens, String run, boolean document) {
+        int[] chars = run.codePoints().toArray();
+        if (chars.length == 1 || document) {
+            for (int c : chars) {
+                tokens.add(Character.toString(c));
+            }
+        }
+        for (int i = 0; i + 1 < chars.length; i++) {
+            tokens.add(new String(chars, i, 2));
+        }
+    }
+
+    /**
+     * Growable primitive int array; ordinals are appended in increasing order.
+     */
+    static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void retainAndRemap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int mapped = remap[values[i]];
+                if (mapped >= 0) {
+                    values[kept++] = mapped;
+                }
+            }
+            size = kept;
+        }
+    }
+}
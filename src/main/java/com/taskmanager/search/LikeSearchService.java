@@ -0,0 +1,36 @@
+package com.taskmanager.search;
+
+import com.taskmanager.entity.Note;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.NoteRepository;
+import com.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Portable fallback (H2, tests, databases without the search columns): case-insensitive substring match.
+ */
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "like", matchIfMissing = true)
+public class LikeSearchService implements SearchService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Override
+    public List<Task> searchTasks(User user, String query) {
+        return taskRepository.searchTasks(user, query);
+    }
+
+    @Override
+    public List<Note> searchNotes(User user, String query) {
+        return noteRepository.searchNotes(user, query);
+    }
+}
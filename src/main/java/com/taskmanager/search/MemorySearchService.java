@@ -0,0 +1,212 @@
+package com.taskmanager.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmanager.cache.Invalidation;
+import com.taskmanager.cache.InvalidationBus;
+import com.taskmanager.entity.Note;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.event.ChangeEvent;
+import com.taskmanager.repository.NoteRepository;
+import com.taskmanager.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-process search engine for deployments where the database should not serve full-text load.
+ * <p>
+ * Keeps one inverted index per user, built lazily from the database on the user's first search and
+ * evicted when the user goes cold. TaskService/NoteService writes are applied after commit to indexes
+ * that are loaded; unloaded users simply pick the change up on their next rebuild. A task or note written
+ * on another node, as announced on the {@link InvalidationBus}, drops the user's index so the next search
+ * rebuilds it from the database.
+ */
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+public class MemorySearchService implements SearchService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Value("${app.search.memory.max-users:1000}")
+    private long maxUsers;
+
+    @Value("${app.search.memory.idle-minutes:30}")
+    private long idleMinutes;
+
+    @Value("${app.fetch.tag-batch-size:1000}")
+    private int loadBatchSize;
+
+    private Cache<UUID, UserIndex> indexes;
+
+    @PostConstruct
+    public void init() {
+        indexes = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "searchIndexes");
+        invalidationBus.subscribe(this::onRemote);
+    }
+
+    @Override
+    public List<Task> searchTasks(User user, String query) {
+        List<UUID> ids = indexFor(user).search(query, true);
+        return loadInOrder(ids, chunk -> taskRepository.findByUserAndIdIn(user, chunk), Task::getId);
+    }
+
+    @Override
+    public List<Note> searchNotes(User user, String query) {
+        List<UUID> ids = indexFor(user).search(query, false);
+        return loadInOrder(ids, chunk -> noteRepository.findByUserAndIdIn(user, chunk), Note::getId);
+    }
+
+    @Override
+    public void onTaskSaved(Task task) {
+        UUID userId = task.getUser().getId();
+        UUID id = task.getId();
+        String title = task.getTitle();
+        String description = task.getDescription();
+        afterCommit(userId, index -> index.put(true, id, title, description));
+    }
+
+    @Override
+    public void onTaskDeleted(UUID userId, UUID taskId) {
+        afterCommit(userId, index -> index.remove(true, taskId));
+    }
+
+    @Override
+    public void onNoteSaved(Note note) {
+        UUID userId = note.getUser().getId();
+        UUID id = note.getId();
+        String title = note.getTitle();
+        String content = note.getContent();
+        afterCommit(userId, index -> index.put(false, id, title, content));
+    }
+
+    @Override
+    public void onNoteDeleted(UUID userId, UUID noteId) {
+        afterCommit(userId, index -> index.remove(false, noteId));
+    }
+
+    private void onRemote(List<Invalidation> batch) {
+        for (Invalidation invalidation : batch) {
+            switch (invalidation.type()) {
+                case ChangeEvent.TASK, ChangeEvent.NOTE -> indexes.invalidate(invalidation.userId());
+                case Invalidation.ALL -> indexes.invalidateAll();
+                default -> {
+                }
+            }
+        }
+    }
+
+    private UserIndex indexFor(User user) {
+        return indexes.get(user.getId(), userId -> {
+            UserIndex index = new UserIndex();
+            taskRepository.findSearchDocuments(user)
+                    .forEach(doc -> index.put(true, doc.getId(), doc.getTitle(), doc.getBody()));
+            noteRepository.findSearchDocuments(user)
+                    .forEach(doc -> index.put(false, doc.getId(), doc.getTitle(), doc.getBody()));
+            return index;
+        });
+    }
+
+    // Rolled-back writes never reach the index; computeIfPresent also waits for an in-flight rebuild
+    private void afterCommit(UUID userId, Consumer<UserIndex> update) {
+        Runnable apply = () -> indexes.asMap().computeIfPresent(userId, (id, index) -> {
+            update.accept(index);
+            return index;
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private <T> List<T> loadInOrder(List<UUID> ids, Function<List<UUID>, List<T>> loader, Function<T, UUID> idOf) {
+        Map<UUID, T> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += loadBatchSize) {
+            for (T entity : loader.apply(ids.subList(from, Math.min(from + loadBatchSize, ids.size())))) {
+                byId.put(idOf.apply(entity), entity);
+            }
+        }
+
+        List<T> ordered = new ArrayList<>(byId.size());
+        for (UUID id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+
+    private static final class UserIndex {
+        private final InvertedIndex tasks = new InvertedIndex();
+        private final InvertedIndex notes = new InvertedIndex();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void put(boolean task, UUID id, String title, String body) {
+            lock.writeLock().lock();
+            try {
+                (task ? tasks : notes).put(id, title, body);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(boolean task, UUID id) {
+            lock.writeLock().lock();
+            try {
+                (task ? tasks : notes).remove(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<UUID> search(String query, boolean task) {
+            lock.readLock().lock();
+            try {
+                return (task ? tasks : notes).search(query);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
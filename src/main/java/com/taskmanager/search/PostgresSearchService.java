@@ -0,0 +1,77 @@
+package com.taskmanager.search;
+
+import com.taskmanager.entity.Note;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.NoteRepository;
+import com.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL full-text search over the generated search_vector columns (GIN indexed, see schema-postgresql.sql).
+ * Every search term is matched as a prefix and all terms must match; results are ordered by ts_rank.
+ * <p>
+ * The 'simple' parser does not split CJK text into words ('买牛奶' is one token), so queries containing
+ * CJK characters use the substring match of {@link LikeSearchService} instead. It scans only the user's
+ * rows; a trigram index would not help, since most Chinese words are shorter than three characters.
+ */
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres")
+public class PostgresSearchService implements SearchService {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern CJK = Pattern.compile("[\\p{IsHan}\\p{IsHiragana}\\p{IsKatakana}\\p{IsHangul}]");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Override
+    public List<Task> searchTasks(User user, String query) {
+        if (containsCjk(query)) {
+            return taskRepository.searchTasks(user, query);
+        }
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return taskRepository.fullTextSearch(user.getId(), tsQuery);
+    }
+
+    @Override
+    public List<Note> searchNotes(User user, String query) {
+        if (containsCjk(query)) {
+            return noteRepository.searchNotes(user, query);
+        }
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return noteRepository.fullTextSearch(user.getId(), tsQuery);
+    }
+
+    static boolean containsCjk(String query) {
+        return query != null && CJK.matcher(query).find();
+    }
+
+    // "Buy milk!" -> "buy:* & milk:*"; stripping punctuation keeps user input from being parsed as tsquery syntax
+    static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return NON_WORD.splitAsStream(query.toLowerCase(Locale.ROOT))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
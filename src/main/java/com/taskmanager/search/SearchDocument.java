@@ -0,0 +1,15 @@
+package com.taskmanager.search;
+
+import java.util.UUID;
+
+/**
+ * Projection of the searchable text of a task (title + description) or note (title + content).
+ */
+public interface SearchDocument {
+
+    UUID getId();
+
+    String getTitle();
+
+    String getBody();
+}
@@ -0,0 +1,32 @@
+package com.taskmanager.search;
+
+import com.taskmanager.entity.Note;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full-text search over a user's tasks and notes, best matches first.
+ * The engine is selected with app.search.engine (postgres | like | memory).
+ * Write hooks let engines that keep their own index follow changes; database-backed engines ignore them.
+ */
+public interface SearchService {
+
+    List<Task> searchTasks(User user, String query);
+
+    List<Note> searchNotes(User user, String query);
+
+    default void onTaskSaved(Task task) {
+    }
+
+    default void onTaskDeleted(UUID userId, UUID taskId) {
+    }
+
+    default void onNoteSaved(Note note) {
+    }
+
+    default void onNoteDeleted(UUID userId, UUID noteId) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.taskmanager.security;
+
+import com.taskmanager.entity.User;
+
+import java.util.List;
+
+/**
+ * UserDetails that keeps the account it was loaded from, so a successful login can mint its token
+ * from the authenticated principal instead of looking the user up again.
+ */
+public class AccountUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient User account;
+
+    public AccountUserDetails(User account) {
+        this(account, account.getPasswordHash());
+    }
+
+    public AccountUserDetails(User account, String password) {
+        super(account.getEmail(), password, List.of());
+        this.account = account;
+    }
+
+    public User getAccount() {
+        return account;
+    }
+}
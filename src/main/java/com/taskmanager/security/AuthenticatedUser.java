@@ -0,0 +1,29 @@
+package com.taskmanager.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * Lightweight principal stored in the SecurityContext for JWT-authenticated requests.
+ * Carries the user id so services never have to look the user up by email again.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal {
+    private final UUID id;
+    private final String email;
+    private final String fullName;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
@@ -0,0 +1,113 @@
+package com.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Resolves the authenticated user for the current request.
+ * - JwtRequestFilter resolves the token subject once and stores an {@link AuthenticatedUser} principal
+ * - services read the id from that principal and use a JPA reference, so no users query is issued
+ * - email → user resolution is backed by a bounded, TTL-evicting cache
+ */
+@Component
+public class CurrentUserResolver {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.user-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<String, AuthenticatedUser> cache;
+
+    private Counter principalHits;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "currentUsers");
+
+        principalHits = resolutionCounter("principal");
+        cacheHits = resolutionCounter("cache");
+        cacheMisses = resolutionCounter("database");
+    }
+
+    private Counter resolutionCounter(String source) {
+        return Counter.builder("app.current_user.resolutions")
+                .description("Current-user resolutions by source")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resolves a token subject (email) to a lightweight principal, hitting the database only on a cache miss.
+     */
+    public AuthenticatedUser resolve(String email) {
+        AuthenticatedUser cached = cache.getIfPresent(email);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+
+        cacheMisses.increment();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), user.getFullName());
+        cache.put(email, principal);
+        return principal;
+    }
+
+    public AuthenticatedUser getAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            principalHits.increment();
+            return principal;
+        }
+        return resolve(authentication.getName());
+    }
+
+    public UUID getCurrentUserId() {
+        return getAuthenticatedUser().getId();
+    }
+
+    /**
+     * Returns an uninitialized JPA reference; enough for ownership filters and foreign keys.
+     */
+    public User getCurrentUser() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
@@ -1,35 +1,47 @@
 package com.taskmanager.security;
 
-import com.taskmanager.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private CurrentUserResolver currentUserResolver;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenVersionStore tokenVersionStore;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
     @Autowired
     private Environment env;
 
+    // claims：直接信任已验签 token 中的 userId（不查库）；database：每次按 email 解析用户（带缓存）
+    @Value("${jwt.auth-mode:claims}")
+    private String authMode;
+
     // 不需要 JWT 的公开路径
     private static final List<String> PUBLIC_PATHS = Arrays.asList(
             "/",
@@ -37,6 +49,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             "/error",
             "/auth/signup",
             "/auth/login",
+            "/auth/refresh",
+            "/auth/logout",
             "/auth/test",
             "/h2-console"
     );
@@ -64,19 +78,22 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         String username = null;
         String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
-                logger.info("✅ JWT token detected for user: " + username);
+                // 每个请求只解析/验签一次（签名与过期时间均在此校验）
+                claims = jwtUtil.verify(jwt);
+                username = claims.getSubject();
+                logger.debug("✅ JWT token detected for user: " + username);
 
                 // 打印调试信息
-                logger.debug("🔑 Token valid. Expires at: " + jwtUtil.extractExpiration(jwt));
+                logger.debug("🔑 Token valid. Expires at: " + claims.getExpiration());
                 logger.debug("🧱 Using secret prefix: " + maskSecret(jwtUtil.getSecret()));
 
             } catch (io.jsonwebtoken.ExpiredJwtException e) {
-                logger.error("❌ JWT expired at: " + e.getClaims().getExpiration());
+                logger.debug("❌ JWT expired at: " + e.getClaims().getExpiration());
             } catch (io.jsonwebtoken.SignatureException e) {
                 logger.error("❌ JWT signature invalid: " + e.getMessage());
             } catch (Exception e) {
@@ -87,24 +104,49 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // token 已在上面完成验签与过期校验，无需再次解析
+            AuthenticatedUser principal = resolvePrincipal(claims, username);
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+                                principal, null, Collections.emptyList());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                logger.info("✅ User authenticated: " + username);
+                logger.debug("✅ User authenticated: " + username);
             } else {
-                logger.warn("❌ Token validation failed for user: " + username);
+                logger.warn("❌ Token revoked for user: " + username);
             }
         }
 
         chain.doFilter(request, response);
     }
 
+    // 由 claims 构建 principal；旧 token（无 uid）或 database 模式回退为按 email 解析
+    private AuthenticatedUser resolvePrincipal(Claims claims, String username) {
+        String userId = claims.get(JwtUtil.CLAIM_USER_ID, String.class);
+        if (userId == null) {
+            return currentUserResolver.resolve(username);
+        }
+
+        // Refresh tokens only work at /auth/refresh; logged-out tokens are in the in-memory revocation set
+        if (jwtUtil.isRefreshToken(claims) || tokenRevocationStore.isRevoked(claims.getId())) {
+            return null;
+        }
+
+        UUID id = UUID.fromString(userId);
+        Number version = claims.get(JwtUtil.CLAIM_TOKEN_VERSION, Number.class);
+        if (!tokenVersionStore.isCurrent(id, version == null ? 0 : version.longValue())) {
+            return null;
+        }
+
+        if ("claims".equals(authMode)) {
+            return new AuthenticatedUser(id, username, claims.get(JwtUtil.CLAIM_FULL_NAME, String.class));
+        }
+        return currentUserResolver.resolve(username);
+    }
+
     // 检查是否是公开路径（严格匹配，避免误判）
     private boolean isPublicPath(String path) {
         return PUBLIC_PATHS.stream()
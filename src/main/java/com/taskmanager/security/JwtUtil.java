@@ -1,31 +1,141 @@
 package com.taskmanager.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.taskmanager.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_FULL_NAME = "name";
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+    public static final String TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret}")
     private String secret;
 
+    // Lifetime of access tokens; kept short because they are checked in memory only
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private Long refreshExpiration;
+
+    @Value("${jwt.verified-cache.max-size:50000}")
+    private long verifiedCacheSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TokenVersionStore tokenVersionStore;
+
+    // 启动时预计算密钥与 parser（JwtParser 线程安全，可复用）
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // 已验证 token 的缓存：key 为 token 的 SHA-256，条目在 token 过期时淘汰
+    private Cache<String, Claims> verifiedTokens;
+
+    private Counter cacheHits;
+    private Counter parsedTokens;
+    private Timer parseTimer;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verifiedTokens");
+
+        cacheHits = verificationCounter("cache");
+        parsedTokens = verificationCounter("parse");
+        parseTimer = Timer.builder("app.jwt.parse")
+                .description("Signature check and claims parsing on verification cache misses")
+                .register(meterRegistry);
+    }
+
+    private Counter verificationCounter(String path) {
+        return Counter.builder("app.jwt.verifications")
+                .description("JWT verifications by path (cache hit or full parse)")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Parses the token and checks signature and expiry, at most once per distinct token while it is valid.
+     * Failures surface as the usual jjwt exceptions (ExpiredJwtException, SignatureException, ...).
+     */
+    public Claims verify(String token) {
+        String key = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims != null) {
+            cacheHits.increment();
+            return claims;
+        }
+
+        parsedTokens.increment();
+        long start = System.nanoTime();
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } finally {
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -37,44 +147,79 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()  // 使用 parser() 而不是 parserBuilder()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
+    }
+
+    // token 内嵌 userId 与 token 版本，请求时可直接由 claims 构建认证信息
+    public String generateToken(User user) {
+        return generateToken(user.getId(), user.getEmail(), user.getFullName());
+    }
+
+    public String generateToken(UUID userId, String email, String fullName) {
+        return createToken(userClaims(userId, fullName), email, expiration);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Long-lived token accepted only by /auth/refresh, where it is exchanged (once) for a new pair.
+     */
+    public String generateRefreshToken(UUID userId, String email, String fullName) {
+        Map<String, Object> claims = userClaims(userId, fullName);
+        claims.put(CLAIM_TOKEN_TYPE, TYPE_REFRESH);
+        return createToken(claims, email, refreshExpiration);
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public boolean isRefreshToken(Claims claims) {
+        return TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
+    }
+
+    public long getExpiration() {
+        return expiration;
+    }
+
+    private Map<String, Object> userClaims(UUID userId, String fullName) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put(CLAIM_USER_ID, userId.toString());
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersionStore.currentVersion(userId));
+        if (fullName != null) {
+            claims.put(CLAIM_FULL_NAME, fullName);
+        }
+        return claims;
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    // Every token gets a unique id (jti) so it can be revoked on its own
+    private String createToken(Map<String, Object> claims, String subject, long lifetimeMillis) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + lifetimeMillis))
+                .signWith(signingKey)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = verify(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     // ✅ 用于日志打印的 getter
     public String getSecret() {
         return secret;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.taskmanager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs credential work (BCrypt hashing and checking) on a small dedicated pool so a login storm burns
+ * these threads instead of Tomcat's and task/note requests keep flowing.
+ * <p>
+ * Admission control is the bounded queue: once it is full, {@link #submit} throws
+ * {@link RejectedExecutionException} straight away and the caller answers 429.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 = one thread per CPU; hashing is pure CPU work
+    @Value("${app.auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.auth.hashing.queue-size:64}")
+    private int queueSize;
+
+    private ThreadPoolExecutor executor;
+    private Timer queueWait;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("app.auth.hashing.queued", executor, pool -> pool.getQueue().size())
+                .description("Credential operations waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("app.auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads busy")
+                .register(meterRegistry);
+        queueWait = Timer.builder("app.auth.hashing.queue_wait")
+                .description("Time credential operations waited for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues the operation and records its latency under {@code app.auth.requests{endpoint, outcome}};
+     * throws {@link RejectedExecutionException} when the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(String endpoint, Supplier<T> operation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long enqueued = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+                return operation.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            sample.stop(latency(endpoint, "rejected"));
+            Counter.builder("app.auth.hashing.rejected")
+                    .description("Credential operations turned away with 429")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        }
+        return result.whenComplete((value, error) -> sample.stop(latency(endpoint, error == null ? "success" : "failure")));
+    }
+
+    private Timer latency(String endpoint, String outcome) {
+        return Timer.builder("app.auth.requests")
+                .description("Latency of credential endpoints, queueing included")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
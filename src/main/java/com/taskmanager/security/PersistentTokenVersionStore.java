@@ -0,0 +1,80 @@
+package com.taskmanager.security;
+
+import com.taskmanager.cache.Invalidation;
+import com.taskmanager.cache.InvalidationBus;
+import com.taskmanager.cache.InvalidationPublisher;
+import com.taskmanager.entity.TokenVersion;
+import com.taskmanager.repository.TokenVersionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default {@link TokenVersionStore}. Checks read an in-memory map, so authenticating a request never
+ * touches the database; only users that have revoked their tokens occupy an entry.
+ * <p>
+ * Bumps are counted in token_versions (reloaded at startup) and broadcast on the {@link InvalidationBus};
+ * a node that missed broadcasts reloads the table.
+ */
+@Component
+public class PersistentTokenVersionStore implements TokenVersionStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistentTokenVersionStore.class);
+
+    @Autowired
+    private TokenVersionRepository tokenVersionRepository;
+
+    @Autowired
+    private InvalidationPublisher invalidationPublisher;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    private final Map<UUID, Long> versions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        reload();
+        log.info("Loaded {} token versions", versions.size());
+        invalidationBus.subscribe(this::onRemote);
+    }
+
+    @Override
+    public long currentVersion(UUID userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    @Override
+    public long revokeAll(UUID userId) {
+        long version = tokenVersionRepository.increment(userId);
+        versions.merge(userId, version, Math::max);
+        invalidationPublisher.publish(new Invalidation(Invalidation.TOKEN_VERSION, userId, Long.toString(version)));
+        return version;
+    }
+
+    private void onRemote(List<Invalidation> batch) {
+        for (Invalidation invalidation : batch) {
+            switch (invalidation.type()) {
+                case Invalidation.TOKEN_VERSION ->
+                        versions.merge(invalidation.userId(), Long.parseLong(invalidation.id()), Math::max);
+                case Invalidation.ALL -> reload();
+                default -> {
+                }
+            }
+        }
+    }
+
+    // Versions only grow, so merging with max never undoes a bump applied in the meantime
+    private void reload() {
+        for (TokenVersion row : tokenVersionRepository.findAll()) {
+            versions.merge(row.getUserId(), row.getVersion(), Math::max);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.taskmanager.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -16,7 +18,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -46,6 +47,9 @@ public class SecurityConfig {
     @Autowired
     private Environment env;  // 当前激活的 Profile
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // ✅ 从 application.yml 中读取 jwt.secret
     @Value("${jwt.secret:}")
     private String jwtSecret;
@@ -66,10 +70,17 @@ public class SecurityConfig {
     @Value("${app.cors.allowed-origins:http://localhost:3000,http://localhost:5173}")
     private String allowedOrigins;
 
-    // 加密器
+    // 未配置时 actuator 与业务接口同端口，照常需要 token
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
+    @Value("${app.auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    // 加密器：cost 可配置，调整后旧哈希在下次登录成功时自动重算
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new RehashingBCryptPasswordEncoder(bcryptStrength, meterRegistry);
     }
 
     // 用户认证提供者
@@ -78,6 +89,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -112,16 +124,20 @@ public class SecurityConfig {
                     .requestMatchers("/tasks/**").permitAll()
                     .anyRequest().permitAll()
             );
-            System.out.println("⚙️ [SECURITY] Running in DEV mode → All endpoints are open.");
+            log.info("⚙️ [SECURITY] Running in DEV mode → All endpoints are open.");
         } else {
             // 🔒 生产环境：严格启用 JWT 验证
             http.authorizeHttpRequests(auth -> auth
+                    // 异步回调（如 /events 的 SSE 结束）不会重新携带 token，首次请求已完成鉴权
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers("/", "/error", "/health", "/auth/**", "/h2-console/**").permitAll()
+                    // Actuator 只在独立的内网端口（management.server.port）上提供，Prometheus 抓取无需 token
+                    .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
                     .anyRequest().authenticated()
             );
             http.authenticationProvider(authenticationProvider());
             http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
-            System.out.println("🔐 [SECURITY] Running in PROD mode → JWT security enabled.");
+            log.info("🔐 [SECURITY] Running in PROD mode → JWT security enabled.");
         }
 
         return http.build();
@@ -140,6 +156,7 @@ public class SecurityConfig {
 
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("ETag"));   // 浏览器端条件请求（If-None-Match / If-Match）需要读取 ETag
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
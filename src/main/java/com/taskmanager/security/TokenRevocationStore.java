@@ -0,0 +1,141 @@
+package com.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.taskmanager.cache.Invalidation;
+import com.taskmanager.cache.InvalidationBus;
+import com.taskmanager.cache.InvalidationPublisher;
+import com.taskmanager.entity.RevokedToken;
+import com.taskmanager.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ids (jti) of JWTs revoked before their expiry: refresh tokens spent by rotation and tokens ended by logout.
+ * <p>
+ * Checks are a lookup in an expiring in-memory set, so authenticating a request never touches the database.
+ * Each entry lives only until its token would have expired anyway, which keeps the set small. Revocations are
+ * written to revoked_tokens (reloaded at startup and after the bus may have lost messages) and broadcast on
+ * the {@link InvalidationBus}, so every node learns of them within milliseconds.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private InvalidationPublisher invalidationPublisher;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // jti → expiry of the revoked token (epoch millis)
+    private Cache<String, Long> revoked;
+
+    @PostConstruct
+    public void init() {
+        revoked = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String jti, Long expiresAt, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(expiresAt - System.currentTimeMillis(), 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String jti, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String jti, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        Gauge.builder("app.jwt.revoked", revoked, Cache::estimatedSize)
+                .description("Revoked, not yet expired tokens held in memory")
+                .register(meterRegistry);
+
+        reload();
+        invalidationBus.subscribe(this::onRemote);
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.getIfPresent(jti) != null;
+    }
+
+    /**
+     * Revokes the token; returns false when it already was, so a refresh token can be spent only once.
+     */
+    public boolean revoke(String jti, UUID userId, Instant expiresAt) {
+        if (jti == null || isRevoked(jti)) {
+            return false;
+        }
+        // The table decides: another node may have spent the token before its broadcast reached us
+        int inserted = revokedTokenRepository.insertIfAbsent(jti, userId,
+                LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+        revoked.put(jti, expiresAt.toEpochMilli());
+        if (inserted == 0) {
+            return false;
+        }
+        invalidationPublisher.publish(new Invalidation(Invalidation.TOKEN, userId, jti + "@" + expiresAt.toEpochMilli()));
+        return true;
+    }
+
+    private void onRemote(List<Invalidation> batch) {
+        for (Invalidation invalidation : batch) {
+            switch (invalidation.type()) {
+                case Invalidation.TOKEN -> {
+                    int at = invalidation.id().lastIndexOf('@');
+                    revoked.put(invalidation.id().substring(0, at), Long.parseLong(invalidation.id().substring(at + 1)));
+                }
+                case Invalidation.ALL -> reload();
+                default -> {
+                }
+            }
+        }
+    }
+
+    // Entries are only ever added, so reloading never undoes a revocation applied in the meantime
+    private void reload() {
+        List<RevokedToken> persisted = revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+        persisted.forEach(token -> revoked.put(token.getJti(), toEpochMillis(token.getExpiresAt())));
+        log.info("Loaded {} revoked tokens", persisted.size());
+    }
+
+    // Memory entries expire on their own; this trims the table
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:3600000}",
+            initialDelayString = "${jwt.revocation.purge-initial-delay-ms:180000}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Purged {} expired revoked tokens", removed);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
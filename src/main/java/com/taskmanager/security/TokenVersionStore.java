@@ -0,0 +1,22 @@
+package com.taskmanager.security;
+
+import java.util.UUID;
+
+/**
+ * Per-user token version used for revocation in claims-based authentication.
+ * Tokens carry the version they were minted with; bumping the version invalidates every older token
+ * for that user without loading the user on each request.
+ */
+public interface TokenVersionStore {
+
+    long currentVersion(UUID userId);
+
+    /**
+     * Invalidates all tokens issued so far for the user and returns the new version.
+     */
+    long revokeAll(UUID userId);
+
+    default boolean isCurrent(UUID userId, long tokenVersion) {
+        return tokenVersion >= currentVersion(userId);
+    }
+}
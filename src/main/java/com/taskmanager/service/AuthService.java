@@ -1,15 +1,27 @@
 package com.taskmanager.service;
 
+import com.taskmanager.cache.Invalidation;
+import com.taskmanager.cache.InvalidationPublisher;
 import com.taskmanager.dto.AuthDTO;
 import com.taskmanager.entity.User;
 import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.AccountUserDetails;
 import com.taskmanager.security.JwtUtil;
+import com.taskmanager.security.TokenRevocationStore;
+import com.taskmanager.security.TokenVersionStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
 
 @Service
 public class AuthService {
@@ -27,49 +39,121 @@ public class AuthService {
     private AuthenticationManager authenticationManager;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private InvalidationPublisher invalidationPublisher;
+
+    @Autowired
+    private TokenVersionStore tokenVersionStore;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
+    /**
+     * Hashes the password before the transaction begins: BCrypt takes tens of milliseconds, and a
+     * transaction holds a pool connection from its start, so hashing inside it would starve other requests.
+     */
     public AuthDTO.AuthResponse signup(AuthDTO.SignupRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+
+        User user = new TransactionTemplate(transactionManager).execute(status -> insertUser(request, passwordHash));
+        return issueTokens(user.getId(), user.getEmail(), user.getFullName());
+    }
 
+    private User insertUser(AuthDTO.SignupRequest request, String passwordHash) {
         User user = new User();
         user.setEmail(request.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHash);
         user.setFullName(request.getFullName());
 
-        user = userRepository.save(user);
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-        String token = jwtUtil.generateToken(userDetails);
-
-        AuthDTO.AuthResponse response = new AuthDTO.AuthResponse();
-        response.setToken(token);
-        response.setEmail(user.getEmail());
-        response.setFullName(user.getFullName());
-        response.setUserId(user.getId().toString());
-
-        return response;
+        // The unique constraint on email is the duplicate check; flushing here surfaces it as one INSERT
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Email already exists");
+        }
+        userStatsService.initialize(user.getId());
+        // Other nodes drop anything they hold for this email (e.g. a principal of a deleted account)
+        invalidationPublisher.publish(Invalidation.user(user.getId(), user.getEmail()));
+        return user;
     }
 
     public AuthDTO.AuthResponse login(AuthDTO.LoginRequest request) {
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The provider already loaded the account to check the password; no second users query
+        User user = ((AccountUserDetails) authentication.getPrincipal()).getAccount();
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-        String token = jwtUtil.generateToken(userDetails);
+        return issueTokens(user.getId(), user.getEmail(), user.getFullName());
+    }
 
-        AuthDTO.AuthResponse response = new AuthDTO.AuthResponse();
-        response.setToken(token);
-        response.setEmail(user.getEmail());
-        response.setFullName(user.getFullName());
-        response.setUserId(user.getId().toString());
+    /**
+     * Exchanges a refresh token for a new access/refresh pair. Each refresh token works once: it is revoked
+     * as it is spent, so a stolen copy stops working as soon as either party has used it.
+     */
+    public AuthDTO.AuthResponse refresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtil.verify(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        String uid = claims.get(JwtUtil.CLAIM_USER_ID, String.class);
+        if (uid == null) {
+            // Issued before tokens carried the user id
+            throw new RuntimeException("Invalid refresh token");
+        }
+        UUID userId = UUID.fromString(uid);
+        Number version = claims.get(JwtUtil.CLAIM_TOKEN_VERSION, Number.class);
+        if (!jwtUtil.isRefreshToken(claims)
+                || !tokenVersionStore.isCurrent(userId, version == null ? 0 : version.longValue())
+                || !tokenRevocationStore.revoke(claims.getId(), userId, claims.getExpiration().toInstant())) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        return issueTokens(userId, claims.getSubject(), claims.get(JwtUtil.CLAIM_FULL_NAME, String.class));
+    }
+
+    /**
+     * Revokes the refresh token and, when given, the access token of the session; invalid tokens are ignored.
+     */
+    public void logout(String refreshToken, String accessToken) {
+        for (String token : new String[]{refreshToken, accessToken}) {
+            if (token == null || token.isBlank()) {
+                continue;
+            }
+            try {
+                Claims claims = jwtUtil.verify(token);
+                String userId = claims.get(JwtUtil.CLAIM_USER_ID, String.class);
+                if (userId != null) {
+                    tokenRevocationStore.revoke(claims.getId(), UUID.fromString(userId), claims.getExpiration().toInstant());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Already expired or not ours: nothing left to revoke
+            }
+        }
+    }
+
+    /**
+     * Signs the user out on every device: all access and refresh tokens issued so far stop working.
+     */
+    public void logoutAll(UUID userId) {
+        tokenVersionStore.revokeAll(userId);
+    }
 
+    private AuthDTO.AuthResponse issueTokens(UUID userId, String email, String fullName) {
+        AuthDTO.AuthResponse response = new AuthDTO.AuthResponse();
+        response.setToken(jwtUtil.generateToken(userId, email, fullName));
+        response.setRefreshToken(jwtUtil.generateRefreshToken(userId, email, fullName));
+        response.setExpiresIn(jwtUtil.getExpiration());
+        response.setEmail(email);
+        response.setFullName(fullName);
+        response.setUserId(userId.toString());
         return response;
     }
-}
\ No newline at end of file
+}
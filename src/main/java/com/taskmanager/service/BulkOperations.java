@@ -0,0 +1,104 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.BulkDTO;
+import com.taskmanager.entity.Tag;
+import com.taskmanager.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * The per-item mechanics shared by the task and note bulk endpoints: the size limit, one tag query per
+ * request, and one result per item, reported by its index in the request. A failing item never aborts the
+ * others; entity-specific work (stats, search, events) stays with the calling service.
+ */
+@Component
+public class BulkOperations {
+
+    @Autowired
+    private TagService tagService;
+
+    @Value("${app.bulk.max-items:500}")
+    private int bulkMaxItems;
+
+    public void checkBatchSize(int size) {
+        if (size > bulkMaxItems) {
+            throw new RuntimeException("Too many items: at most " + bulkMaxItems + " per request");
+        }
+    }
+
+    /**
+     * Loads the tags referenced by any item in one query; items pick theirs with {@link TagService#pickTags}.
+     */
+    public <I> Map<UUID, Tag> findTags(List<I> items, Function<I, Set<UUID>> tagIds, User user) {
+        Set<UUID> ids = items.stream()
+                .map(tagIds)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+        return tagService.findTagsById(ids, user);
+    }
+
+    /**
+     * Builds an entity per item and saves those that could be built in one batch. Items whose build throws
+     * are reported as failed; returns the saved entities.
+     */
+    public <I, E> List<E> create(List<I> items, Function<I, E> build, UnaryOperator<List<E>> saveAll,
+                                 Function<E, UUID> idOf, BulkDTO.BulkResult result) {
+        List<E> entities = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                entities.add(build.apply(items.get(i)));
+                positions.add(i);
+            } catch (RuntimeException e) {
+                result.add(BulkDTO.ItemResult.failed(i, null, e.getMessage()));
+            }
+        }
+
+        List<E> saved = saveAll.apply(entities);
+        for (int i = 0; i < saved.size(); i++) {
+            result.add(BulkDTO.ItemResult.ok(positions.get(i), idOf.apply(saved.get(i))));
+        }
+        result.getResults().sort(Comparator.comparing(BulkDTO.ItemResult::getIndex));
+        return saved;
+    }
+
+    /**
+     * Applies the action to each item's entity among those found (loaded by the caller with one query).
+     * Items without an entity, or whose action throws, are reported as failed with the given message or
+     * the exception's.
+     */
+    public <I, E> BulkDTO.BulkResult apply(List<I> items, Function<I, UUID> idOf, Map<UUID, E> found,
+                                           String notFound, BiConsumer<I, E> action) {
+        BulkDTO.BulkResult result = new BulkDTO.BulkResult();
+        for (int i = 0; i < items.size(); i++) {
+            I item = items.get(i);
+            UUID id = idOf.apply(item);
+            E entity = found.get(id);
+            if (entity == null) {
+                result.add(BulkDTO.ItemResult.failed(i, id, notFound));
+                continue;
+            }
+            try {
+                action.accept(item, entity);
+                result.add(BulkDTO.ItemResult.ok(i, id));
+            } catch (RuntimeException e) {
+                result.add(BulkDTO.ItemResult.failed(i, id, e.getMessage()));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package com.taskmanager.service;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encodes keyset positions into opaque continuation tokens.
+ * Task cursors carry (createdAt, id); note cursors additionally carry isPinned.
+ * Sync cursors carry one (updatedAt, id) position per change stream.
+ */
+@Component
+public class CursorCodec {
+
+    private static final String TASK_PREFIX = "t";
+    private static final String NOTE_PREFIX = "n";
+    private static final String SYNC_PREFIX = "s";
+
+    public String encodeTask(LocalDateTime createdAt, UUID id) {
+        return encode(TASK_PREFIX + "|" + createdAt + "|" + id);
+    }
+
+    public String encodeNote(Boolean isPinned, LocalDateTime createdAt, UUID id) {
+        return encode(NOTE_PREFIX + "|" + Boolean.TRUE.equals(isPinned) + "|" + createdAt + "|" + id);
+    }
+
+    public TaskCursor decodeTask(String cursor) {
+        String[] parts = decode(cursor, TASK_PREFIX, 3);
+        try {
+            return new TaskCursor(LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public NoteCursor decodeNote(String cursor) {
+        String[] parts = decode(cursor, NOTE_PREFIX, 4);
+        try {
+            return new NoteCursor(Boolean.parseBoolean(parts[1]),
+                    LocalDateTime.parse(parts[2]), UUID.fromString(parts[3]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public String encodeSync(SyncCursor cursor) {
+        StringBuilder raw = new StringBuilder(SYNC_PREFIX);
+        for (Position position : List.of(cursor.tasks(), cursor.notes(), cursor.tags(), cursor.deletions())) {
+            raw.append('|').append(position.at()).append('|').append(position.id());
+        }
+        return encode(raw.toString());
+    }
+
+    public SyncCursor decodeSync(String cursor) {
+        String[] parts = decode(cursor, SYNC_PREFIX, 9);
+        try {
+            Position[] positions = new Position[4];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = new Position(LocalDateTime.parse(parts[1 + 2 * i]), UUID.fromString(parts[2 + 2 * i]));
+            }
+            return new SyncCursor(positions[0], positions[1], positions[2], positions[3]);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decode(String cursor, String prefix, int expectedParts) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        String[] parts = raw.split("\\|");
+        if (parts.length != expectedParts || !parts[0].equals(prefix)) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        return parts;
+    }
+
+    public record TaskCursor(LocalDateTime createdAt, UUID id) {
+    }
+
+    public record NoteCursor(boolean isPinned, LocalDateTime createdAt, UUID id) {
+    }
+
+    public record Position(LocalDateTime at, UUID id) {
+    }
+
+    public record SyncCursor(Position tasks, Position notes, Position tags, Position deletions) {
+    }
+}
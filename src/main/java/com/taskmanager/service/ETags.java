@@ -0,0 +1,102 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.Tag;
+import com.taskmanager.repository.Fingerprint;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+/**
+ * Strong entity tags derived from {@code @Version} counters rather than from hashing response bodies.
+ * <p>
+ * A single task or note is tagged {@code "<version>-<digest of its tags' ids and versions>"}; only the version
+ * part takes part in If-Match checks, the digest just keeps tag renames from producing a stale 304.
+ * Collections are tagged with a digest of per-table {@link Fingerprint}s.
+ */
+public final class ETags {
+
+    // Sentinel for an If-Match value this server never issued: no current version can satisfy it
+    public static final long UNSATISFIABLE = -1;
+
+    private ETags() {
+    }
+
+    public static String of(Long version, Collection<Tag> tags) {
+        StringBuilder state = new StringBuilder();
+        tags.stream()
+                .sorted(Comparator.comparing(Tag::getId))
+                .forEach(tag -> state.append(tag.getId()).append(':').append(tag.getVersion()).append(';'));
+        return "\"" + version + "-" + digest(state.toString()) + "\"";
+    }
+
+    public static String of(Fingerprint... parts) {
+        StringBuilder state = new StringBuilder();
+        for (Fingerprint part : parts) {
+            state.append(part.getCount()).append('|')
+                    .append(part.getLastModified()).append('|')
+                    .append(part.getVersionSum()).append(';');
+        }
+        return "\"" + digest(state.toString()) + "\"";
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so a {@code W/} prefix is ignored.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the version an If-Match header requires: {@code null} when absent or {@code *},
+     * {@link #UNSATISFIABLE} for weak or foreign tags (If-Match uses strong comparison).
+     */
+    public static Long requiredVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (!value.startsWith("\"") || value.contains(",")) {
+            return UNSATISFIABLE;
+        }
+        int dash = value.indexOf('-');
+        try {
+            return Long.parseLong(value.substring(1, dash < 0 ? value.length() - 1 : dash));
+        } catch (RuntimeException e) {
+            return UNSATISFIABLE;
+        }
+    }
+
+    public static void checkVersion(Long requiredVersion, Long currentVersion, String entityName) {
+        if (requiredVersion != null && !requiredVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException(entityName + " has been modified");
+        }
+    }
+
+    private static String digest(String state) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(state.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
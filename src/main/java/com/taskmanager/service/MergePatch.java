@@ -0,0 +1,113 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Applies a JSON merge patch (RFC 7396) to an entity through a fixed registry of patchable fields.
+ * <p>
+ * Only members present in the patch are touched and an explicit {@code null} clears a nullable field.
+ * Setters run only for values that actually differ, so with {@code @DynamicUpdate} the resulting UPDATE
+ * writes just those columns. The whole patch is validated before anything is applied.
+ */
+public class MergePatch<T> {
+
+    private final Map<String, PatchField<T, ?>> fields = new LinkedHashMap<>();
+    private final Set<String> external = new HashSet<>();
+
+    public <V> MergePatch<T> field(String name, Class<V> type, boolean nullable,
+                                   Function<T, V> getter, BiConsumer<T, V> setter) {
+        return field(name, type, nullable, getter, setter, value -> true, null);
+    }
+
+    public <V> MergePatch<T> field(String name, Class<V> type, boolean nullable,
+                                   Function<T, V> getter, BiConsumer<T, V> setter,
+                                   Predicate<V> valid, String invalidMessage) {
+        fields.put(name, new PatchField<>(type, nullable, getter, setter, valid, invalidMessage));
+        return this;
+    }
+
+    /**
+     * Accepts a member that the caller applies itself (e.g. an association); {@link #apply} skips it.
+     */
+    public MergePatch<T> external(String name) {
+        external.add(name);
+        return this;
+    }
+
+    /**
+     * Returns the names of the fields whose value changed.
+     */
+    public Set<String> apply(T target, JsonNode patch, ObjectMapper mapper) {
+        if (patch == null || !patch.isObject()) {
+            throw new RuntimeException("Patch must be a JSON object");
+        }
+
+        Map<String, Object> values = new HashMap<>();
+        patch.fields().forEachRemaining(entry -> {
+            String name = entry.getKey();
+            if (external.contains(name)) {
+                return;
+            }
+            PatchField<T, ?> field = fields.get(name);
+            if (field == null) {
+                throw new RuntimeException("Field cannot be patched: " + name);
+            }
+            values.put(name, field.read(name, entry.getValue(), mapper));
+        });
+
+        Set<String> changed = new LinkedHashSet<>();
+        for (Map.Entry<String, PatchField<T, ?>> entry : fields.entrySet()) {
+            String name = entry.getKey();
+            if (values.containsKey(name) && entry.getValue().write(target, values.get(name))) {
+                changed.add(name);
+            }
+        }
+        return changed;
+    }
+
+    private record PatchField<T, V>(Class<V> type, boolean nullable, Function<T, V> getter,
+                                    BiConsumer<T, V> setter, Predicate<V> valid, String invalidMessage) {
+
+        V read(String name, JsonNode node, ObjectMapper mapper) {
+            if (node.isNull()) {
+                if (!nullable) {
+                    throw new RuntimeException(name + " cannot be null");
+                }
+                return null;
+            }
+
+            V value;
+            try {
+                value = mapper.treeToValue(node, type);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                throw new RuntimeException("Invalid value for " + name);
+            }
+            if (!valid.test(value)) {
+                throw new RuntimeException(invalidMessage != null ? invalidMessage : "Invalid value for " + name);
+            }
+            return value;
+        }
+
+        boolean write(T target, Object value) {
+            V typed = type.cast(value);
+            if (Objects.equals(getter.apply(target), typed)) {
+                return false;
+            }
+            setter.accept(target, typed);
+            return true;
+        }
+    }
+}
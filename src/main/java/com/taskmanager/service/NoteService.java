@@ -1,85 +1,404 @@
 package com.taskmanager.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.cache.EntityCache;
+import com.taskmanager.dto.BulkDTO;
+import com.taskmanager.dto.CursorPage;
 import com.taskmanager.dto.NoteDTO;
+import com.taskmanager.dto.TagDTO;
 import com.taskmanager.entity.Note;
 import com.taskmanager.entity.Tag;
+import com.taskmanager.entity.Tombstone;
 import com.taskmanager.entity.User;
+import com.taskmanager.event.ChangeEvent;
 import com.taskmanager.repository.NoteRepository;
-import com.taskmanager.repository.TagRepository;
-import com.taskmanager.repository.UserRepository;
+import com.taskmanager.repository.TagLink;
+import com.taskmanager.search.SearchService;
+import com.taskmanager.security.CurrentUserResolver;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class NoteService {
 
+    private static final String TAG_IDS = "tagIds";
+
+    // Fields a client may change through PATCH; id, owner and timestamps are not patchable
+    private static final MergePatch<Note> NOTE_PATCH = new MergePatch<Note>()
+            .field("title", String.class, false, Note::getTitle, Note::setTitle,
+                    title -> !title.isBlank(), "Title is required")
+            .field("content", String.class, true, Note::getContent, Note::setContent)
+            .field("isPinned", Boolean.class, false, Note::getIsPinned, Note::setIsPinned)
+            .external(TAG_IDS);
+
     @Autowired
     private NoteRepository noteRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private BulkOperations bulkOperations;
+
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private TombstoneService tombstoneService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Autowired
-    private TagRepository tagRepository;
+    private EntityCache entityCache;
+
+    @Value("${app.pagination.default-page-size:20}")
+    private int defaultPageSize;
 
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.fetch.tag-batch-size:1000}")
+    private int tagBatchSize;
+
+    /**
+     * Hands the user's notes, pinned first, to {@code sink} as response DTOs. Rows come through a
+     * server-side cursor and tags are attached one chunk at a time, so memory use does not grow with the list.
+     */
+    @Transactional(readOnly = true)
+    public void streamNotes(Consumer<NoteDTO.NoteView> sink) {
+        User user = currentUserResolver.getCurrentUser();
+        try (Stream<NoteRepository.NoteRow> rows = noteRepository.streamByUser(user)) {
+            List<NoteRepository.NoteRow> chunk = new ArrayList<>();
+            Iterator<NoteRepository.NoteRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == tagBatchSize) {
+                    emit(chunk, sink);
+                    chunk.clear();
+                }
+            }
+            emit(chunk, sink);
+        }
     }
 
-    public List<Note> getAllNotes() {
-        User user = getCurrentUser();
-        return noteRepository.findByUserOrderByIsPinnedDescCreatedAtDesc(user);
+    private void emit(List<NoteRepository.NoteRow> chunk, Consumer<NoteDTO.NoteView> sink) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<TagDTO.TagView>> tags = noteRepository.findTagLinks(
+                        chunk.stream().map(NoteRepository.NoteRow::getId).toList()).stream()
+                .collect(Collectors.groupingBy(TagLink::getOwnerId,
+                        Collectors.mapping(TagDTO.TagView::from, Collectors.toList())));
+        for (NoteRepository.NoteRow row : chunk) {
+            sink.accept(NoteDTO.NoteView.of(row, tags.getOrDefault(row.getId(), List.of())));
+        }
+    }
+
+    /**
+     * ETag of the user's whole note collection, computed from aggregates without loading it.
+     * Callers take it before reading the list, so a concurrent write can only make it older, never newer.
+     */
+    @Transactional(readOnly = true)
+    public String getNotesEtag() {
+        User user = currentUserResolver.getCurrentUser();
+        return ETags.of(noteRepository.fingerprint(user), tagService.fingerprint(user));
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<Note> getNotesPage(String cursor, Integer limit) {
+        User user = currentUserResolver.getCurrentUser();
+        int size = (limit == null || limit <= 0) ? defaultPageSize : Math.min(limit, maxPageSize);
+        // Fetch one extra row to learn whether another page exists
+        int wanted = size + 1;
+
+        // Pinned notes come first; each section is read with its own index range scan
+        List<Note> notes = new ArrayList<>();
+        boolean inPinnedSection = true;
+        if (cursor == null || cursor.isEmpty()) {
+            notes.addAll(noteRepository.findFirstPage(user, true, PageRequest.ofSize(wanted)));
+        } else {
+            CursorCodec.NoteCursor position = cursorCodec.decodeNote(cursor);
+            inPinnedSection = position.isPinned();
+            notes.addAll(noteRepository.findPageAfter(user, position.isPinned(),
+                    position.createdAt(), position.id(), PageRequest.ofSize(wanted)));
+        }
+        if (inPinnedSection && notes.size() < wanted) {
+            notes.addAll(noteRepository.findFirstPage(user, false, PageRequest.ofSize(wanted - notes.size())));
+        }
+
+        if (notes.size() <= size) {
+            return CursorPage.of(withTags(notes), null);
+        }
+        notes = withTags(notes.subList(0, size));
+        Note last = notes.get(size - 1);
+        return CursorPage.of(notes, cursorCodec.encodeNote(last.getIsPinned(), last.getCreatedAt(), last.getId()));
+    }
+
+    @Transactional(readOnly = true)
     public List<Note> searchNotes(String search) {
-        User user = getCurrentUser();
-        return noteRepository.searchNotes(user, search);
+        User user = currentUserResolver.getCurrentUser();
+        return withTags(searchService.searchNotes(user, search));
     }
 
+    // Initializes tags for the whole list with one IN query per batch instead of one query per note
+    private List<Note> withTags(List<Note> notes) {
+        for (int from = 0; from < notes.size(); from += tagBatchSize) {
+            List<UUID> ids = notes.subList(from, Math.min(from + tagBatchSize, notes.size())).stream()
+                    .map(Note::getId)
+                    .toList();
+            noteRepository.fetchTags(ids);
+        }
+        return notes;
+    }
+
+    // Cached detached copy with tags loaded; evicted by CacheInvalidator after each write to it or to a tag
     public Note getNoteById(UUID id) {
-        User user = getCurrentUser();
-        return noteRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Note not found"));
+        UUID userId = currentUserResolver.getCurrentUserId();
+        return entityCache.get(EntityCache.Region.NOTES, userId, id, () ->
+                noteRepository.findByIdAndUser(id, currentUserResolver.getCurrentUser())
+                        .orElseThrow(() -> new RuntimeException("Note not found")));
     }
 
     @Transactional
     public Note createNote(NoteDTO.CreateNoteRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.getCurrentUser();
 
-        Note note = new Note();
-        note.setUser(user);
-        note.setTitle(request.getTitle());
-        note.setContent(request.getContent());
+        Note note = newNote(request, user, tagService.resolveTags(request.getTagIds(), user));
 
-        // Handle tags
-        if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
-            Set<Tag> tags = new HashSet<>();
-            for (UUID tagId : request.getTagIds()) {
-                Tag tag = tagRepository.findByIdAndUser(tagId, user)
-                        .orElseThrow(() -> new RuntimeException("Tag not found: " + tagId));
-                tags.add(tag);
-            }
+        note = noteRepository.save(note);
+        userStatsService.noteCreated(user.getId(), note);
+        searchService.onNoteSaved(note);
+        publish(user.getId(), note.getId(), ChangeEvent.Action.CREATED);
+        return note;
+    }
+
+    @Transactional
+    public Note updateNote(UUID id, NoteDTO.UpdateNoteRequest request, Long requiredVersion) {
+        User user = currentUserResolver.getCurrentUser();
+        Note note = noteRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new RuntimeException("Note not found"));
+        ETags.checkVersion(requiredVersion, note.getVersion(), "Note");
+        boolean wasPinned = UserStatsService.isPinned(note);
+
+        Set<Tag> tags = request.getTagIds() != null ? tagService.resolveTags(request.getTagIds(), user) : null;
+        applyUpdate(note, request, tags);
+
+        note = noteRepository.save(note);
+        userStatsService.notePinChanged(user.getId(), wasPinned, note);
+        searchService.onNoteSaved(note);
+        publish(user.getId(), note.getId(), ChangeEvent.Action.UPDATED);
+        return note;
+    }
+
+    @Transactional
+    public NoteDTO.NoteSummary toggleNotePinned(UUID id, Long requiredVersion) {
+        UUID userId = currentUserResolver.getCurrentUserId();
+        Note note = noteRepository.togglePinned(id, userId, LocalDateTime.now(),
+                        requiredVersion == null, requiredVersion == null ? 0 : requiredVersion)
+                .orElseThrow(() -> requiredVersion != null && noteRepository.existsByIdAndUserId(id, userId)
+                        ? new PreconditionFailedException("Note has been modified")
+                        : new RuntimeException("Note not found"));
+
+        // The returned row carries the new value; the old one is its negation
+        boolean wasPinned = !UserStatsService.isPinned(note);
+        userStatsService.notePinChanged(userId, wasPinned, note);
+        publish(userId, note.getId(), ChangeEvent.Action.UPDATED);
+        return NoteDTO.NoteSummary.from(note);
+    }
+
+    /**
+     * Applies a JSON merge patch; members left out of the patch are untouched and a null clears the field.
+     * Nothing is written when the patch changes nothing.
+     */
+    @Transactional
+    public Note patchNote(UUID id, JsonNode patch, Long requiredVersion) {
+        User user = currentUserResolver.getCurrentUser();
+        Note note = noteRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new RuntimeException("Note not found"));
+        ETags.checkVersion(requiredVersion, note.getVersion(), "Note");
+        boolean wasPinned = UserStatsService.isPinned(note);
+
+        // Resolve tags before touching the entity so a bad id leaves it clean
+        JsonNode tagIds = patch != null ? patch.get(TAG_IDS) : null;
+        Set<Tag> tags = null;
+        if (tagIds != null) {
+            tags = tagIds.isNull() ? new HashSet<>() : tagService.resolveTags(readIds(tagIds), user);
+        }
+
+        Set<String> changed = NOTE_PATCH.apply(note, patch, objectMapper);
+        if (tags != null && !tags.equals(note.getTags())) {
             note.setTags(tags);
+            changed.add(TAG_IDS);
+        }
+        if (changed.isEmpty()) {
+            return note;
         }
 
-        return noteRepository.save(note);
+        note = noteRepository.save(note);
+        userStatsService.notePinChanged(user.getId(), wasPinned, note);
+        if (changed.contains("title") || changed.contains("content")) {
+            searchService.onNoteSaved(note);
+        }
+        publish(user.getId(), note.getId(), ChangeEvent.Action.UPDATED);
+        return note;
+    }
+
+    private Set<UUID> readIds(JsonNode node) {
+        try {
+            return objectMapper.convertValue(node, new TypeReference<Set<UUID>>() { });
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid value for " + TAG_IDS);
+        }
     }
 
     @Transactional
-    public Note updateNote(UUID id, NoteDTO.UpdateNoteRequest request) {
-        User user = getCurrentUser();
+    public void deleteNote(UUID id) {
+        User user = currentUserResolver.getCurrentUser();
         Note note = noteRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new RuntimeException("Note not found"));
 
+        noteRepository.delete(note);
+        userStatsService.noteDeleted(user.getId(), note);
+        searchService.onNoteDeleted(user.getId(), id);
+        tombstoneService.recordDeletion(user.getId(), Tombstone.NOTE, id);
+        publish(user.getId(), id, ChangeEvent.Action.DELETED);
+    }
+
+    // ---- Bulk mutations: one transaction per request, one result per item ----
+    // Note ids are generated in the JVM (GenerationType.UUID), so Hibernate can batch the INSERT/UPDATE/DELETE statements
+
+    @Transactional
+    public BulkDTO.BulkResult createNotes(List<NoteDTO.CreateNoteRequest> items) {
+        bulkOperations.checkBatchSize(items.size());
+        User user = currentUserResolver.getCurrentUser();
+        Map<UUID, Tag> tagsById = bulkOperations.findTags(items, NoteDTO.CreateNoteRequest::getTagIds, user);
+
+        BulkDTO.BulkResult result = new BulkDTO.BulkResult();
+        List<Note> saved = bulkOperations.create(items, item -> {
+            Set<Tag> tags = item.getTagIds() != null ? tagService.pickTags(item.getTagIds(), tagsById) : null;
+            return newNote(item, user, tags);
+        }, noteRepository::saveAll, Note::getId, result);
+
+        for (Note note : saved) {
+            searchService.onNoteSaved(note);
+            publish(user.getId(), note.getId(), ChangeEvent.Action.CREATED);
+        }
+        userStatsService.applyNoteDelta(user.getId(), saved.size(),
+                UserStatsService.count(saved, UserStatsService::isPinned));
+        return result;
+    }
+
+    @Transactional
+    public BulkDTO.BulkResult updateNotes(List<NoteDTO.BulkNotePatch> items) {
+        bulkOperations.checkBatchSize(items.size());
+        User user = currentUserResolver.getCurrentUser();
+        Map<UUID, Note> notesById = findOwned(user, items.stream().map(NoteDTO.BulkNotePatch::getId).toList());
+        Map<UUID, Tag> tagsById = bulkOperations.findTags(items, NoteDTO.BulkNotePatch::getTagIds, user);
+
+        long pinnedBefore = UserStatsService.count(notesById.values(), UserStatsService::isPinned);
+        BulkDTO.BulkResult result = bulkOperations.apply(items, NoteDTO.BulkNotePatch::getId, notesById,
+                "Note not found", (item, note) -> {
+                    Set<Tag> tags = item.getTagIds() != null ? tagService.pickTags(item.getTagIds(), tagsById) : null;
+                    applyUpdate(note, item, tags);
+                    searchService.onNoteSaved(note);
+                    publish(user.getId(), note.getId(), ChangeEvent.Action.UPDATED);
+                });
+        // Dirty notes are flushed as batched UPDATEs at commit
+        userStatsService.applyNoteDelta(user.getId(), 0,
+                UserStatsService.count(notesById.values(), UserStatsService::isPinned) - pinnedBefore);
+        return result;
+    }
+
+    @Transactional
+    public BulkDTO.BulkResult toggleNotesPinned(List<UUID> ids) {
+        bulkOperations.checkBatchSize(ids.size());
+        User user = currentUserResolver.getCurrentUser();
+        Map<UUID, Note> notesById = findOwned(user, ids);
+
+        long pinnedBefore = UserStatsService.count(notesById.values(), UserStatsService::isPinned);
+        BulkDTO.BulkResult result = bulkOperations.apply(ids, Function.identity(), notesById, "Note not found",
+                (id, note) -> {
+                    note.setIsPinned(!UserStatsService.isPinned(note));
+                    publish(user.getId(), id, ChangeEvent.Action.UPDATED);
+                });
+        userStatsService.applyNoteDelta(user.getId(), 0,
+                UserStatsService.count(notesById.values(), UserStatsService::isPinned) - pinnedBefore);
+        return result;
+    }
+
+    @Transactional
+    public BulkDTO.BulkResult deleteNotes(List<UUID> ids) {
+        bulkOperations.checkBatchSize(ids.size());
+        User user = currentUserResolver.getCurrentUser();
+        Map<UUID, Note> notesById = findOwned(user, ids);
+
+        BulkDTO.BulkResult result = bulkOperations.apply(ids, Function.identity(), notesById, "Note not found",
+                (id, note) -> {
+                });
+
+        noteRepository.deleteAll(notesById.values());
+        tombstoneService.recordDeletions(user.getId(), Tombstone.NOTE, notesById.keySet());
+        for (Note note : notesById.values()) {
+            searchService.onNoteDeleted(user.getId(), note.getId());
+            publish(user.getId(), note.getId(), ChangeEvent.Action.DELETED);
+        }
+        userStatsService.applyNoteDelta(user.getId(), -notesById.size(),
+                -UserStatsService.count(notesById.values(), UserStatsService::isPinned));
+        return result;
+    }
+
+    // Delivered to listeners (e.g. the /events stream) only once the transaction commits
+    private void publish(UUID userId, UUID noteId, ChangeEvent.Action action) {
+        eventPublisher.publishEvent(ChangeEvent.of(userId, ChangeEvent.NOTE, noteId, action));
+    }
+
+    private Note newNote(NoteDTO.CreateNoteRequest request, User user, Set<Tag> tags) {
+        Note note = new Note();
+        note.setUser(user);
+        note.setTitle(request.getTitle());
+        note.setContent(request.getContent());
+
+        // Handle tags
+        if (tags != null && !tags.isEmpty()) {
+            note.setTags(tags);
+        }
+        return note;
+    }
+
+    // Applies the non-null fields of the request; tags are replaced only when given
+    private void applyUpdate(Note note, NoteDTO.UpdateNoteRequest request, Set<Tag> tags) {
         if (request.getTitle() != null) {
             note.setTitle(request.getTitle());
         }
@@ -91,34 +410,13 @@ public class NoteService {
         }
 
         // Update tags
-        if (request.getTagIds() != null) {
-            Set<Tag> tags = new HashSet<>();
-            for (UUID tagId : request.getTagIds()) {
-                Tag tag = tagRepository.findByIdAndUser(tagId, user)
-                        .orElseThrow(() -> new RuntimeException("Tag not found: " + tagId));
-                tags.add(tag);
-            }
+        if (tags != null) {
             note.setTags(tags);
         }
-
-        return noteRepository.save(note);
-    }
-
-    @Transactional
-    public Note toggleNotePinned(UUID id) {
-        User user = getCurrentUser();
-        Note note = noteRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Note not found"));
-
-        note.setIsPinned(!note.getIsPinned());
-        return noteRepository.save(note);
     }
 
-    public void deleteNote(UUID id) {
-        User user = getCurrentUser();
-        Note note = noteRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Note not found"));
-
-        noteRepository.delete(note);
+    private Map<UUID, Note> findOwned(User user, List<UUID> ids) {
+        return noteRepository.findByUserAndIdIn(user, ids).stream()
+                .collect(Collectors.toMap(Note::getId, Function.identity()));
     }
-}
\ No newline at end of file
+}
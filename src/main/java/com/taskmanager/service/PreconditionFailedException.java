@@ -0,0 +1,13 @@
+package com.taskmanager.service;
+
+/**
+ * Thrown when an If-Match header no longer matches the stored version; controllers answer 412.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
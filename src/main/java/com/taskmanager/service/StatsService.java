@@ -1,15 +1,16 @@
 package com.taskmanager.service;
 
+import com.taskmanager.dto.StatsDTO;
 import com.taskmanager.entity.User;
+import com.taskmanager.entity.UserStats;
 import com.taskmanager.repository.NoteRepository;
 import com.taskmanager.repository.TaskRepository;
-import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.CurrentUserResolver;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class StatsService {
@@ -21,48 +22,36 @@ public class StatsService {
     private NoteRepository noteRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
 
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
-    public Map<String, Object> getStatistics() {
-        User user = getCurrentUser();
-
-        Map<String, Object> stats = new HashMap<>();
-
-        // Task statistics
-        Map<String, Object> taskStats = new HashMap<>();
-        Long totalTasks = taskRepository.countByUserAndCompleted(user, false) +
-                taskRepository.countByUserAndCompleted(user, true);
-        Long completedTasks = taskRepository.countByUserAndCompleted(user, true);
-        Long activeTasks = taskRepository.countByUserAndCompleted(user, false);
-
-        taskStats.put("total", totalTasks);
-        taskStats.put("completed", completedTasks);
-        taskStats.put("active", activeTasks);
-
-        if (totalTasks > 0) {
-            taskStats.put("completionRate", (completedTasks * 100.0) / totalTasks);
-        } else {
-            taskStats.put("completionRate", 0.0);
+    @Autowired
+    private UserStatsService userStatsService;
+
+    // O(1) read of the materialized counters; falls back to live aggregates until the row exists
+    @Transactional(readOnly = true)
+    public StatsDTO.Statistics getStatistics() {
+        User user = currentUserResolver.getCurrentUser();
+
+        Optional<UserStats> materialized = userStatsService.findStats(user.getId());
+        if (materialized.isPresent()) {
+            UserStats counters = materialized.get();
+            return new StatsDTO.Statistics(
+                    toTaskStats(counters.getTaskTotal(), counters.getTaskCompleted(), counters.getTaskHighPriority()),
+                    new StatsDTO.NoteStats(counters.getNoteTotal(), counters.getNotePinned()));
         }
 
-        stats.put("tasks", taskStats);
+        // One aggregate query per table instead of one COUNT per counter
 
-        // Note statistics
-        Map<String, Object> noteStats = new HashMap<>();
-        Long totalNotes = noteRepository.countByUser(user);
-        Long pinnedNotes = noteRepository.countByUserAndIsPinned(user, true);
+        TaskRepository.TaskCounts taskCounts = taskRepository.aggregateCounts(user);
+        NoteRepository.NoteCounts noteCounts = noteRepository.aggregateCounts(user);
 
-        noteStats.put("total", totalNotes);
-        noteStats.put("pinned", pinnedNotes);
-
-        stats.put("notes", noteStats);
+        return new StatsDTO.Statistics(
+                toTaskStats(taskCounts.getTotal(), taskCounts.getCompleted(), taskCounts.getHighPriority()),
+                new StatsDTO.NoteStats(noteCounts.getTotal(), noteCounts.getPinned()));
+    }
 
-        return stats;
+    private StatsDTO.TaskStats toTaskStats(long total, long completed, long highPriority) {
+        double completionRate = total > 0 ? (completed * 100.0) / total : 0.0;
+        return new StatsDTO.TaskStats(total, completed, total - completed, completionRate, highPriority);
     }
-}
\ No newline at end of file
+}
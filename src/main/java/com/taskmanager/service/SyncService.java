@@ -0,0 +1,138 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.SyncDTO;
+import com.taskmanager.entity.Note;
+import com.taskmanager.entity.Tag;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.Tombstone;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.NoteRepository;
+import com.taskmanager.repository.TagRepository;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.TombstoneRepository;
+import com.taskmanager.security.CurrentUserResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Delta sync: everything the user's tasks, notes and tags went through after a cursor.
+ * <p>
+ * Each change stream (tasks, notes, tags, deletions) is read with its own keyset scan over
+ * (updated_at, id), so a call costs O(changes) rather than O(rows). A stream that has been read to the
+ * end resumes from {@code now - overlap} instead of its last row: a row stamped before that point but
+ * committed later is then still picked up, at the price of occasionally sending a change twice.
+ */
+@Service
+public class SyncService {
+
+    // Start of a full snapshot; every stored row is newer
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID MIN_ID = new UUID(0, 0);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TombstoneService tombstoneService;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Value("${app.sync.page-size:500}")
+    private int pageSize;
+
+    @Value("${app.sync.overlap-ms:5000}")
+    private long overlapMs;
+
+    @Transactional(readOnly = true)
+    public SyncDTO.Changes getChanges(String since) {
+        User user = currentUserResolver.getCurrentUser();
+        CursorCodec.Position safe = new CursorCodec.Position(
+                LocalDateTime.now().minus(overlapMs, ChronoUnit.MILLIS), MIN_ID);
+
+        CursorCodec.SyncCursor cursor = (since == null || since.isEmpty()) ? null : cursorCodec.decodeSync(since);
+        // Tombstones older than the retention window are gone, so such a client must start over
+        boolean reset = cursor == null || cursor.deletions().at().isBefore(tombstoneService.retentionHorizon());
+        if (reset) {
+            CursorCodec.Position origin = new CursorCodec.Position(ORIGIN, MIN_ID);
+            // A snapshot needs no earlier deletions, only those racing with it
+            cursor = new CursorCodec.SyncCursor(origin, origin, origin, safe);
+        }
+
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+        CursorCodec.Position tasksAt = cursor.tasks();
+        CursorCodec.Position notesAt = cursor.notes();
+        CursorCodec.Position tagsAt = cursor.tags();
+        CursorCodec.Position deletionsAt = cursor.deletions();
+
+        List<Task> tasks = taskRepository.findChangedAfter(user, tasksAt.at(), tasksAt.id(), page);
+        List<Note> notes = noteRepository.findChangedAfter(user, notesAt.at(), notesAt.id(), page);
+        List<Tag> tags = tagRepository.findChangedAfter(user, tagsAt.at(), tagsAt.id(), page);
+        List<Tombstone> tombstones = tombstoneRepository.findChangedAfter(user.getId(),
+                deletionsAt.at(), deletionsAt.id(), page);
+
+        boolean moreTasks = tasks.size() > pageSize;
+        boolean moreNotes = notes.size() > pageSize;
+        boolean moreTags = tags.size() > pageSize;
+        boolean moreDeletions = tombstones.size() > pageSize;
+        tasks = firstPage(tasks);
+        notes = firstPage(notes);
+        tags = firstPage(tags);
+        tombstones = firstPage(tombstones);
+
+        if (!tasks.isEmpty()) {
+            taskRepository.fetchTags(tasks.stream().map(Task::getId).toList());
+        }
+        if (!notes.isEmpty()) {
+            noteRepository.fetchTags(notes.stream().map(Note::getId).toList());
+        }
+
+        CursorCodec.SyncCursor next = new CursorCodec.SyncCursor(
+                advance(tasks, moreTasks, Task::getUpdatedAt, Task::getId, tasksAt, safe),
+                advance(notes, moreNotes, Note::getUpdatedAt, Note::getId, notesAt, safe),
+                advance(tags, moreTags, Tag::getUpdatedAt, Tag::getId, tagsAt, safe),
+                advance(tombstones, moreDeletions, Tombstone::getDeletedAt, Tombstone::getId, deletionsAt, safe));
+        boolean hasMore = moreTasks || moreNotes || moreTags || moreDeletions;
+
+        List<SyncDTO.Deletion> deleted = tombstones.stream()
+                .map(t -> new SyncDTO.Deletion(t.getEntityType(), t.getEntityId(), t.getDeletedAt()))
+                .toList();
+        return new SyncDTO.Changes(tasks, notes, tags, deleted, cursorCodec.encodeSync(next), hasMore, reset);
+    }
+
+    private <T> List<T> firstPage(List<T> rows) {
+        return rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+    }
+
+    // A full page resumes after its last row; a drained stream resumes at the safe point (never moving back)
+    private <T> CursorCodec.Position advance(List<T> rows, boolean more,
+                                             Function<T, LocalDateTime> at, Function<T, UUID> id,
+                                             CursorCodec.Position current, CursorCodec.Position safe) {
+        if (more) {
+            T last = rows.get(rows.size() - 1);
+            return new CursorCodec.Position(at.apply(last), id.apply(last));
+        }
+        return safe.at().isAfter(current.at()) ? safe : current;
+    }
+}
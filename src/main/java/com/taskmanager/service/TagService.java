@@ -1,45 +1,101 @@
 package com.taskmanager.service;
 
+import com.taskmanager.cache.EntityCache;
 import com.taskmanager.dto.TagDTO;
 import com.taskmanager.entity.Tag;
+import com.taskmanager.entity.Tombstone;
 import com.taskmanager.entity.User;
+import com.taskmanager.event.ChangeEvent;
+import com.taskmanager.repository.Fingerprint;
 import com.taskmanager.repository.TagRepository;
-import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.CurrentUserResolver;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TagService {
 
+    private static final String ALL_TAGS = "all";
+
     @Autowired
     private TagRepository tagRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
 
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    @Autowired
+    private TombstoneService tombstoneService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    // Read on almost every screen and rarely changed; evicted by CacheInvalidator after each tag write
     public List<Tag> getAllTags() {
-        User user = getCurrentUser();
-        return tagRepository.findByUserOrderByCreatedAtDesc(user);
+        UUID userId = currentUserResolver.getCurrentUserId();
+        return entityCache.get(EntityCache.Region.TAG_LISTS, userId, ALL_TAGS, () ->
+                List.copyOf(tagRepository.findByUserOrderByCreatedAtDesc(currentUserResolver.getCurrentUser())));
     }
 
     public Tag getTagById(UUID id) {
-        User user = getCurrentUser();
-        return tagRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Tag not found"));
+        UUID userId = currentUserResolver.getCurrentUserId();
+        return entityCache.get(EntityCache.Region.TAGS, userId, id, () ->
+                tagRepository.findByIdAndUser(id, currentUserResolver.getCurrentUser())
+                        .orElseThrow(() -> new RuntimeException("Tag not found")));
+    }
+
+    /**
+     * Loads all requested tags of the user in one query; fails listing every id that does not exist.
+     */
+    public Set<Tag> resolveTags(Collection<UUID> tagIds, User user) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        return pickTags(tagIds, findTagsById(tagIds, user));
     }
 
+    /**
+     * Loads the tags of a whole batch in one query; pair with {@link #pickTags} per item.
+     */
+    public Map<UUID, Tag> findTagsById(Collection<UUID> tagIds, User user) {
+        if (tagIds.isEmpty()) {
+            return Map.of();
+        }
+        return tagRepository.findAllByIdInAndUser(tagIds, user).stream()
+                .collect(Collectors.toMap(Tag::getId, Function.identity()));
+    }
+
+    public Set<Tag> pickTags(Collection<UUID> tagIds, Map<UUID, Tag> tagsById) {
+        String missing = tagIds.stream()
+                .filter(id -> !tagsById.containsKey(id))
+                .map(UUID::toString)
+                .collect(Collectors.joining(", "));
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Tag not found: " + missing);
+        }
+        return tagIds.stream().map(tagsById::get).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    public Fingerprint fingerprint(User user) {
+        return tagRepository.fingerprint(user);
+    }
+
+    @Transactional
     public Tag createTag(TagDTO.CreateTagRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.getCurrentUser();
 
         // Check if tag with same name exists
         if (tagRepository.findByUserAndName(user, request.getName()).isPresent()) {
@@ -51,11 +107,14 @@ public class TagService {
         tag.setName(request.getName());
         tag.setColor(request.getColor());
 
-        return tagRepository.save(tag);
+        tag = tagRepository.save(tag);
+        publish(user.getId(), tag.getId(), ChangeEvent.Action.CREATED);
+        return tag;
     }
 
+    @Transactional
     public Tag updateTag(UUID id, TagDTO.UpdateTagRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.getCurrentUser();
         Tag tag = tagRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new RuntimeException("Tag not found"));
 
@@ -73,14 +132,24 @@ public class TagService {
             tag.setColor(request.getColor());
         }
 
-        return tagRepository.save(tag);
+        tag = tagRepository.save(tag);
+        publish(user.getId(), tag.getId(), ChangeEvent.Action.UPDATED);
+        return tag;
     }
 
+    @Transactional
     public void deleteTag(UUID id) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.getCurrentUser();
         Tag tag = tagRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new RuntimeException("Tag not found"));
 
         tagRepository.delete(tag);
+        tombstoneService.recordDeletion(user.getId(), Tombstone.TAG, id);
+        publish(user.getId(), id, ChangeEvent.Action.DELETED);
+    }
+
+    // Delivered to listeners (e.g. the /events stream) only once the transaction commits
+    private void publish(UUID userId, UUID tagId, ChangeEvent.Action action) {
+        eventPublisher.publishEvent(ChangeEvent.of(userId, ChangeEvent.TAG, tagId, action));
     }
 }
\ No newline at end of file
@@ -1,65 +1,395 @@
 package com.taskmanager.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.cache.EntityCache;
+import com.taskmanager.dto.BulkDTO;
+import com.taskmanager.dto.CursorPage;
+import com.taskmanager.dto.TagDTO;
 import com.taskmanager.dto.TaskDTO;
 import com.taskmanager.entity.Tag;
 import com.taskmanager.entity.Task;
+import com.taskmanager.entity.Tombstone;
 import com.taskmanager.entity.User;
-import com.taskmanager.repository.TagRepository;
+import com.taskmanager.event.ChangeEvent;
+import com.taskmanager.repository.TagLink;
 import com.taskmanager.repository.TaskRepository;
-import com.taskmanager.repository.UserRepository;
+import com.taskmanager.search.SearchService;
+import com.taskmanager.security.CurrentUserResolver;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
 
+    private static final String TAG_IDS = "tagIds";
+
+    // Fields a client may change through PATCH; id, owner and timestamps are not patchable
+    private static final MergePatch<Task> TASK_PATCH = new MergePatch<Task>()
+            .field("title", String.class, false, Task::getTitle, Task::setTitle,
+                    title -> !title.isBlank(), "Title is required")
+            .field("description", String.class, true, Task::getDescription, Task::setDescription)
+            .field("priority", String.class, false, Task::getPriority, Task::setPriority)
+            .field("completed", Boolean.class, false, Task::getCompleted, Task::setCompleted)
+            .field("dueDate", LocalDate.class, true, Task::getDueDate, Task::setDueDate)
+            .external(TAG_IDS);
+
     @Autowired
     private TaskRepository taskRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private BulkOperations bulkOperations;
+
+    @Autowired
+    private CursorCodec cursorCodec;
 
     @Autowired
-    private TagRepository tagRepository;
+    private UserStatsService userStatsService;
 
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private TombstoneService tombstoneService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Value("${app.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.fetch.tag-batch-size:1000}")
+    private int tagBatchSize;
+
+    /**
+     * Hands the user's tasks, newest first, to {@code sink} as response DTOs; with {@code completed} set,
+     * only tasks in that state. Rows come through a server-side cursor and tags are attached one chunk
+     * at a time, so memory use does not grow with the list.
+     */
+    @Transactional(readOnly = true)
+    public void streamTasks(Boolean completed, Consumer<TaskDTO.TaskView> sink) {
+        User user = currentUserResolver.getCurrentUser();
+        try (Stream<TaskRepository.TaskRow> rows = completed == null
+                ? taskRepository.streamByUser(user)
+                : taskRepository.streamByUserAndCompleted(user, completed)) {
+            List<TaskRepository.TaskRow> chunk = new ArrayList<>();
+            Iterator<TaskRepository.TaskRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == tagBatchSize) {
+                    emit(chunk, sink);
+                    chunk.clear();
+                }
+            }
+            emit(chunk, sink);
+        }
     }
 
-    public List<Task> getAllTasks() {
-        User user = getCurrentUser();
-        return taskRepository.findByUserOrderByCreatedAtDesc(user);
+    private void emit(List<TaskRepository.TaskRow> chunk, Consumer<TaskDTO.TaskView> sink) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<TagDTO.TagView>> tags = taskRepository.findTagLinks(
+                        chunk.stream().map(TaskRepository.TaskRow::getId).toList()).stream()
+                .collect(Collectors.groupingBy(TagLink::getOwnerId,
+                        Collectors.mapping(TagDTO.TagView::from, Collectors.toList())));
+        for (TaskRepository.TaskRow row : chunk) {
+            sink.accept(TaskDTO.TaskView.of(row, tags.getOrDefault(row.getId(), List.of())));
+        }
     }
 
-    public List<Task> getTasksByStatus(Boolean completed) {
-        User user = getCurrentUser();
-        return taskRepository.findByUserAndCompletedOrderByCreatedAtDesc(user, completed);
+    /**
+     * ETag of the user's whole task collection, computed from aggregates without loading it.
+     * Callers take it before reading the list, so a concurrent write can only make it older, never newer.
+     */
+    @Transactional(readOnly = true)
+    public String getTasksEtag() {
+        User user = currentUserResolver.getCurrentUser();
+        return ETags.of(taskRepository.fingerprint(user), tagService.fingerprint(user));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Task> getTasksPage(String cursor, Integer limit) {
+        User user = currentUserResolver.getCurrentUser();
+        int size = (limit == null || limit <= 0) ? defaultPageSize : Math.min(limit, maxPageSize);
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.ofSize(size + 1);
+
+        List<Task> tasks;
+        if (cursor == null || cursor.isEmpty()) {
+            tasks = taskRepository.findFirstPage(user, page);
+        } else {
+            CursorCodec.TaskCursor position = cursorCodec.decodeTask(cursor);
+            tasks = taskRepository.findPageAfter(user, position.createdAt(), position.id(), page);
+        }
+
+        if (tasks.size() <= size) {
+            return CursorPage.of(withTags(tasks), null);
+        }
+        tasks = withTags(tasks.subList(0, size));
+        Task last = tasks.get(size - 1);
+        return CursorPage.of(tasks, cursorCodec.encodeTask(last.getCreatedAt(), last.getId()));
     }
 
+    @Transactional(readOnly = true)
     public List<Task> searchTasks(String search) {
-        User user = getCurrentUser();
-        return taskRepository.searchTasks(user, search);
+        User user = currentUserResolver.getCurrentUser();
+        return withTags(searchService.searchTasks(user, search));
+    }
+
+    // Initializes tags for the whole list with one IN query per batch instead of one query per task
+    private List<Task> withTags(List<Task> tasks) {
+        for (int from = 0; from < tasks.size(); from += tagBatchSize) {
+            List<UUID> ids = tasks.subList(from, Math.min(from + tagBatchSize, tasks.size())).stream()
+                    .map(Task::getId)
+                    .toList();
+            taskRepository.fetchTags(ids);
+        }
+        return tasks;
     }
 
+    // Cached detached copy with tags loaded; evicted by CacheInvalidator after each write to it or to a tag
     public Task getTaskById(UUID id) {
-        User user = getCurrentUser();
-        return taskRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        UUID userId = currentUserResolver.getCurrentUserId();
+        return entityCache.get(EntityCache.Region.TASKS, userId, id, () ->
+                taskRepository.findByIdAndUser(id, currentUserResolver.getCurrentUser())
+                        .orElseThrow(() -> new RuntimeException("Task not found")));
     }
 
     @Transactional
     public Task createTask(TaskDTO.CreateTaskRequest request) {
-        User user = getCurrentUser();
+        User user = currentUserResolver.getCurrentUser();
 
+        Task task = newTask(request, user, tagService.resolveTags(request.getTagIds(), user));
+
+        task = taskRepository.save(task);
+        userStatsService.taskCreated(user.getId(), task);
+        searchService.onTaskSaved(task);
+        publish(user.getId(), task.getId(), ChangeEvent.Action.CREATED);
+        return task;
+    }
+
+    @Transactional
+    public Task updateTask(UUID id, TaskDTO.UpdateTaskRequest request, Long requiredVersion) {
+        User user = currentUserResolver.getCurrentUser();
+        Task task = taskRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        ETags.checkVersion(requiredVersion, task.getVersion(), "Task");
+        boolean wasCompleted = UserStatsService.isCompleted(task);
+        boolean wasHighPriority = UserStatsService.isHighPriority(task);
+
+        Set<Tag> tags = request.getTagIds() != null ? tagService.resolveTags(request.getTagIds(), user) : null;
+        applyUpdate(task, request, tags);
+
+        task = taskRepository.save(task);
+        userStatsService.taskChanged(user.getId(), wasCompleted, wasHighPriority, task);
+        searchService.onTaskSaved(task);
+        publish(user.getId(), task.getId(), ChangeEvent.Action.UPDATED);
+        return task;
+    }
+
+    @Transactional
+    public TaskDTO.TaskSummary toggleTaskCompletion(UUID id, Long requiredVersion) {
+        UUID userId = currentUserResolver.getCurrentUserId();
+        Task task = taskRepository.toggleCompleted(id, userId, LocalDateTime.now(),
+                        requiredVersion == null, requiredVersion == null ? 0 : requiredVersion)
+                .orElseThrow(() -> requiredVersion != null && taskRepository.existsByIdAndUserId(id, userId)
+                        ? new PreconditionFailedException("Task has been modified")
+                        : new RuntimeException("Task not found"));
+
+        // The returned row carries the new value; the old one is its negation
+        boolean wasCompleted = !UserStatsService.isCompleted(task);
+        userStatsService.taskChanged(userId, wasCompleted, UserStatsService.isHighPriority(task), task);
+        publish(userId, task.getId(), ChangeEvent.Action.UPDATED);
+        return TaskDTO.TaskSummary.from(task);
+    }
+
+    /**
+     * Applies a JSON merge patch; members left out of the patch are untouched and a null clears the field.
+     * Nothing is written when the patch changes nothing.
+     */
+    @Transactional
+    public Task patchTask(UUID id, JsonNode patch, Long requiredVersion) {
+        User user = currentUserResolver.getCurrentUser();
+        Task task = taskRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        ETags.checkVersion(requiredVersion, task.getVersion(), "Task");
+        boolean wasCompleted = UserStatsService.isCompleted(task);
+        boolean wasHighPriority = UserStatsService.isHighPriority(task);
+
+        // Resolve tags before touching the entity so a bad id leaves it clean
+        JsonNode tagIds = patch != null ? patch.get(TAG_IDS) : null;
+        Set<Tag> tags = null;
+        if (tagIds != null) {
+            tags = tagIds.isNull() ? new HashSet<>() : tagService.resolveTags(readIds(tagIds), user);
+        }
+
+        Set<String> changed = TASK_PATCH.apply(task, patch, objectMapper);
+        if (tags != null && !tags.equals(task.getTags())) {
+            task.setTags(tags);
+            changed.add(TAG_IDS);
+        }
+        if (changed.isEmpty()) {
+            return task;
+        }
+
+        task = taskRepository.save(task);
+        userStatsService.taskChanged(user.getId(), wasCompleted, wasHighPriority, task);
+        if (changed.contains("title") || changed.contains("description")) {
+            searchService.onTaskSaved(task);
+        }
+        publish(user.getId(), task.getId(), ChangeEvent.Action.UPDATED);
+        return task;
+    }
+
+    private Set<UUID> readIds(JsonNode node) {
+        try {
+            return objectMapper.convertValue(node, new TypeReference<Set<UUID>>() { });
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid value for " + TAG_IDS);
+        }
+    }
+
+    @Transactional
+    public void deleteTask(UUID id) {
+        User user = currentUserResolver.getCurrentUser();
+        Task task = taskRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+
+        taskRepository.delete(task);
+        userStatsService.taskDeleted(user.getId(), task);
+        searchService.onTaskDeleted(user.getId(), id);
+        tombstoneService.recordDeletion(user.getId(), Tombstone.TASK, id);
+        publish(user.getId(), id, ChangeEvent.Action.DELETED);
+    }
+
+    // ---- Bulk mutations: one transaction per request, one result per item ----
+    // Task ids are generated in the JVM (GenerationType.UUID), so Hibernate can batch the INSERT/UPDATE/DELETE statements
+
+    @Transactional
+    public BulkDTO.BulkResult createTasks(List<TaskDTO.CreateTaskRequest> items) {
+        bulkOperations.checkBatchSize(items.size());
+        User user = currentUserResolver.getCurrentUser();
+        Map<UUID, Tag> tagsById = bulkOperations.findTags(items, TaskDTO.CreateTaskRequest::getTagIds, user);
+
+        BulkDTO.BulkResult result = new BulkDTO.BulkResult();
+        List<Task> saved = bulkOperations.create(items, item -> {
+            Set<Tag> tags = item.getTagIds() != null ? tagService.pickTags(item.getTagIds(), tagsById) : null;
+            return newTask(item, user, tags);
+        }, taskRepository::saveAll, Task::getId, result);
+
+        for (Task task : saved) {
+            searchService.onTaskSaved(task);
+            publish(user.getId(), task.getId(), ChangeEvent.Action.CREATED);
+        }
+        userStatsService.applyTaskDelta(user.getId(), saved.size(),
+                UserStatsService.count(saved, UserStatsService::isCompleted),
+                UserStatsService.count(saved, UserStatsService::isHighPriority));
+        return result;
+    }
+
+    @Transactional
+    public BulkDTO.BulkResult updateTasks(List<TaskDTO.BulkTaskPatch> items) {
+        bulkOperations.checkBatchSize(items.size());
+        User user = currentUserResolver.getCurrentUser();
+        Map<UUID, Task> tasksById = findOwned(user, items.stream().map(TaskDTO.BulkTaskPatch::getId).toList());
+        Map<UUID, Tag> tagsById = bulkOperations.findTags(items, TaskDTO.BulkTaskPatch::getTagIds, user);
+
+        long completedBefore = UserStatsService.count(tasksById.values(), UserStatsService::isCompleted);
+        long highPriorityBefore = UserStatsService.count(tasksById.values(), UserStatsService::isHighPriority);
+        BulkDTO.BulkResult result = bulkOperations.apply(items, TaskDTO.BulkTaskPatch::getId, tasksById,
+                "Task not found", (item, task) -> {
+                    Set<Tag> tags = item.getTagIds() != null ? tagService.pickTags(item.getTagIds(), tagsById) : null;
+                    applyUpdate(task, item, tags);
+                    searchService.onTaskSaved(task);
+                    publish(user.getId(), task.getId(), ChangeEvent.Action.UPDATED);
+                });
+        // Dirty tasks are flushed as batched UPDATEs at commit
+        userStatsService.applyTaskDelta(user.getId(), 0,
+                UserStatsService.count(tasksById.values(), UserStatsService::isCompleted) - completedBefore,
+                UserStatsService.count(tasksById.values(), UserStatsService::isHighPriority) - highPriorityBefore);
+        return result;
+    }
+
+    @Transactional
+    public BulkDTO.BulkResult toggleTasks(List<UUID> ids) {
+        bulkOperations.checkBatchSize(ids.size());
+        User user = currentUserResolver.getCurrentUser();
+        Map<UUID, Task> tasksById = findOwned(user, ids);
+
+        long completedBefore = UserStatsService.count(tasksById.values(), UserStatsService::isCompleted);
+        BulkDTO.BulkResult result = bulkOperations.apply(ids, Function.identity(), tasksById, "Task not found",
+                (id, task) -> {
+                    task.setCompleted(!UserStatsService.isCompleted(task));
+                    publish(user.getId(), id, ChangeEvent.Action.UPDATED);
+                });
+        userStatsService.applyTaskDelta(user.getId(), 0,
+                UserStatsService.count(tasksById.values(), UserStatsService::isCompleted) - completedBefore, 0);
+        return result;
+    }
+
+    @Transactional
+    public BulkDTO.BulkResult deleteTasks(List<UUID> ids) {
+        bulkOperations.checkBatchSize(ids.size());
+        User user = currentUserResolver.getCurrentUser();
+        Map<UUID, Task> tasksById = findOwned(user, ids);
+
+        BulkDTO.BulkResult result = bulkOperations.apply(ids, Function.identity(), tasksById, "Task not found",
+                (id, task) -> {
+                });
+
+        taskRepository.deleteAll(tasksById.values());
+        tombstoneService.recordDeletions(user.getId(), Tombstone.TASK, tasksById.keySet());
+        for (Task task : tasksById.values()) {
+            searchService.onTaskDeleted(user.getId(), task.getId());
+            publish(user.getId(), task.getId(), ChangeEvent.Action.DELETED);
+        }
+        userStatsService.applyTaskDelta(user.getId(), -tasksById.size(),
+                -UserStatsService.count(tasksById.values(), UserStatsService::isCompleted),
+                -UserStatsService.count(tasksById.values(), UserStatsService::isHighPriority));
+        return result;
+    }
+
+    // Delivered to listeners (e.g. the /events stream) only once the transaction commits
+    private void publish(UUID userId, UUID taskId, ChangeEvent.Action action) {
+        eventPublisher.publishEvent(ChangeEvent.of(userId, ChangeEvent.TASK, taskId, action));
+    }
+
+    private Task newTask(TaskDTO.CreateTaskRequest request, User user, Set<Tag> tags) {
         Task task = new Task();
         task.setUser(user);
         task.setTitle(request.getTitle());
@@ -68,25 +398,14 @@ public class TaskService {
         task.setDueDate(request.getDueDate());
 
         // Handle tags
-        if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
-            Set<Tag> tags = new HashSet<>();
-            for (UUID tagId : request.getTagIds()) {
-                Tag tag = tagRepository.findByIdAndUser(tagId, user)
-                        .orElseThrow(() -> new RuntimeException("Tag not found: " + tagId));
-                tags.add(tag);
-            }
+        if (tags != null && !tags.isEmpty()) {
             task.setTags(tags);
         }
-
-        return taskRepository.save(task);
+        return task;
     }
 
-    @Transactional
-    public Task updateTask(UUID id, TaskDTO.UpdateTaskRequest request) {
-        User user = getCurrentUser();
-        Task task = taskRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-
+    // Applies the non-null fields of the request; tags are replaced only when given
+    private void applyUpdate(Task task, TaskDTO.UpdateTaskRequest request, Set<Tag> tags) {
         if (request.getTitle() != null) {
             task.setTitle(request.getTitle());
         }
@@ -104,34 +423,13 @@ public class TaskService {
         }
 
         // Update tags
-        if (request.getTagIds() != null) {
-            Set<Tag> tags = new HashSet<>();
-            for (UUID tagId : request.getTagIds()) {
-                Tag tag = tagRepository.findByIdAndUser(tagId, user)
-                        .orElseThrow(() -> new RuntimeException("Tag not found: " + tagId));
-                tags.add(tag);
-            }
+        if (tags != null) {
             task.setTags(tags);
         }
-
-        return taskRepository.save(task);
-    }
-
-    @Transactional
-    public Task toggleTaskCompletion(UUID id) {
-        User user = getCurrentUser();
-        Task task = taskRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-
-        task.setCompleted(!task.getCompleted());
-        return taskRepository.save(task);
     }
 
-    public void deleteTask(UUID id) {
-        User user = getCurrentUser();
-        Task task = taskRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-
-        taskRepository.delete(task);
+    private Map<UUID, Task> findOwned(User user, List<UUID> ids) {
+        return taskRepository.findByUserAndIdIn(user, ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
     }
-}
\ No newline at end of file
+}
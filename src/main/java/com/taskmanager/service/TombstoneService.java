@@ -0,0 +1,62 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.Tombstone;
+import com.taskmanager.repository.TombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Records deletions for delta sync. Writes join the caller's transaction so a tombstone exists
+ * exactly when the delete commits; tombstones older than the retention window are compacted away.
+ */
+@Service
+public class TombstoneService {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstoneService.class);
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Value("${app.sync.tombstone-retention-days:30}")
+    private int retentionDays;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(UUID userId, String entityType, UUID entityId) {
+        tombstoneRepository.save(new Tombstone(null, userId, entityType, entityId, LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletions(UUID userId, String entityType, Collection<UUID> entityIds) {
+        LocalDateTime now = LocalDateTime.now();
+        tombstoneRepository.saveAll(entityIds.stream()
+                .map(id -> new Tombstone(null, userId, entityType, id, now))
+                .toList());
+    }
+
+    /**
+     * Oldest point a sync cursor may resume from; older cursors may have missed compacted tombstones.
+     */
+    public LocalDateTime retentionHorizon() {
+        return LocalDateTime.now().minusDays(retentionDays);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sync.compaction-interval-ms:3600000}",
+            initialDelayString = "${app.sync.compaction-initial-delay-ms:120000}")
+    @Transactional
+    public void compact() {
+        int removed = tombstoneRepository.deleteOlderThan(retentionHorizon());
+        if (removed > 0) {
+            log.info("Compacted {} tombstones older than {} days", removed, retentionDays);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.Note;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.entity.UserStats;
+import com.taskmanager.repository.NoteRepository;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.repository.UserStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Maintains the materialized user_stats counters.
+ * Write hooks must run inside the caller's transaction so counters commit together with the change.
+ */
+@Service
+public class UserStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatsService.class);
+
+    static final String HIGH_PRIORITY = "high";
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public Optional<UserStats> findStats(UUID userId) {
+        return userStatsRepository.findById(userId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void initialize(UUID userId) {
+        userStatsRepository.save(new UserStats(userId, 0, 0, 0, 0, 0, LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskCreated(UUID userId, Task task) {
+        applyTaskDelta(userId, 1, flag(isCompleted(task)), flag(isHighPriority(task)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskChanged(UUID userId, boolean wasCompleted, boolean wasHighPriority, Task task) {
+        applyTaskDelta(userId, 0,
+                flag(isCompleted(task)) - flag(wasCompleted),
+                flag(isHighPriority(task)) - flag(wasHighPriority));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskDeleted(UUID userId, Task task) {
+        applyTaskDelta(userId, -1, -flag(isCompleted(task)), -flag(isHighPriority(task)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void noteCreated(UUID userId, Note note) {
+        applyNoteDelta(userId, 1, flag(isPinned(note)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notePinChanged(UUID userId, boolean wasPinned, Note note) {
+        applyNoteDelta(userId, 0, flag(isPinned(note)) - flag(wasPinned));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void noteDeleted(UUID userId, Note note) {
+        applyNoteDelta(userId, -1, -flag(isPinned(note)));
+    }
+
+    public static boolean isCompleted(Task task) {
+        return Boolean.TRUE.equals(task.getCompleted());
+    }
+
+    public static boolean isHighPriority(Task task) {
+        return HIGH_PRIORITY.equals(task.getPriority());
+    }
+
+    public static boolean isPinned(Note note) {
+        return Boolean.TRUE.equals(note.getIsPinned());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyTaskDelta(UUID userId, long total, long completed, long highPriority) {
+        if (total != 0 || completed != 0 || highPriority != 0) {
+            // A missing row is left to the reconcile job; /stats falls back to live aggregates meanwhile
+            userStatsRepository.applyDelta(userId, total, completed, highPriority, 0, 0);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyNoteDelta(UUID userId, long total, long pinned) {
+        if (total != 0 || pinned != 0) {
+            userStatsRepository.applyDelta(userId, 0, 0, 0, total, pinned);
+        }
+    }
+
+    public static long flag(boolean value) {
+        return value ? 1 : 0;
+    }
+
+    public static <T> long count(Collection<T> entities, Predicate<T> flag) {
+        return entities.stream().filter(flag).count();
+    }
+
+    /**
+     * Repairs drift between user_stats and the source tables, one user per transaction.
+     * The counters row is locked before counting, so concurrent writers either commit before the
+     * count sees them or apply their delta on top of the repaired value.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:3600000}",
+            initialDelayString = "${app.stats.reconcile-initial-delay-ms:60000}")
+    public void reconcile() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int repaired = 0;
+        for (UUID userId : userRepository.findAllIds()) {
+            try {
+                Boolean changed = tx.execute(status -> reconcileUser(userId));
+                if (Boolean.TRUE.equals(changed)) {
+                    repaired++;
+                }
+            } catch (Exception e) {
+                log.warn("Failed to reconcile stats for user {}: {}", userId, e.getMessage());
+            }
+        }
+        if (repaired > 0) {
+            log.info("Reconciled user_stats drift for {} users", repaired);
+        }
+    }
+
+    private boolean reconcileUser(UUID userId) {
+        Optional<UserStats> locked = userStatsRepository.findForUpdate(userId);
+        User user = userRepository.getReferenceById(userId);
+        TaskRepository.TaskCounts tasks = taskRepository.aggregateCounts(user);
+        NoteRepository.NoteCounts notes = noteRepository.aggregateCounts(user);
+
+        UserStats expected = new UserStats(userId, tasks.getTotal(), tasks.getCompleted(),
+                tasks.getHighPriority(), notes.getTotal(), notes.getPinned(), LocalDateTime.now());
+
+        if (locked.isEmpty()) {
+            userStatsRepository.save(expected);
+            return true;
+        }
+
+        UserStats current = locked.get();
+        if (current.getTaskTotal() == expected.getTaskTotal()
+                && current.getTaskCompleted() == expected.getTaskCompleted()
+                && current.getTaskHighPriority() == expected.getTaskHighPriority()
+                && current.getNoteTotal() == expected.getNoteTotal()
+                && current.getNotePinned() == expected.getNotePinned()) {
+            return false;
+        }
+
+        log.warn("user_stats drift for user {}: stored={}, actual={}", userId, current, expected);
+        userStatsRepository.save(expected);
+        return true;
+    }
+}
@@ -0,0 +1,108 @@
+package com.taskmanager.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.dto.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrently executing API requests at the size of the JDBC pool.
+ * <p>
+ * With virtual threads (spring.threads.virtual.enabled) Tomcat no longer bounds concurrency, so a burst
+ * would otherwise park thousands of requests inside Hikari's getConnection. Here they queue fairly in
+ * front of the controllers instead, and requests still waiting after the acquire timeout get a 503
+ * rather than a connection-timeout 400 half-way through their work. Runs after the security chain, so
+ * unauthenticated requests never take a permit; the permit is released as soon as the request thread
+ * leaves the chain (an SSE stream holds none while idle).
+ */
+@Component
+@ConditionalOnProperty(name = "app.concurrency.db-limiter.enabled", havingValue = "true")
+public class DatabaseConcurrencyFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.concurrency.db-limiter.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int maxConcurrent;
+
+    @Value("${app.concurrency.db-limiter.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+
+    private Semaphore permits;
+    private Timer waits;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrent, true);
+        Gauge.builder("app.db_limiter.available", permits, Semaphore::availablePermits)
+                .description("Free request permits in front of the JDBC pool")
+                .register(meterRegistry);
+        Gauge.builder("app.db_limiter.queued", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a permit")
+                .register(meterRegistry);
+        waits = Timer.builder("app.db_limiter.wait")
+                .description("Time spent waiting for a permit")
+                .register(meterRegistry);
+        rejected = Counter.builder("app.db_limiter.rejected")
+                .description("Requests rejected after the acquire timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return path.equals("/health") || path.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Server busy, please retry"));
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.taskmanager.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.dto.ApiResponse;
+import com.taskmanager.service.ETags;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Writes an {@code ApiResponse} list item by item straight to the servlet output stream, so only the
+ * response buffer is held in memory whatever the list size. Runs on the request thread, inside the
+ * transaction the producer opens.
+ * <p>
+ * A failure before the buffer is first flushed still becomes the usual 400 error body; after that the
+ * response can only be cut short.
+ */
+@Component
+public class JsonListWriter {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public <T> void write(HttpServletResponse response, String ifNoneMatch, Supplier<String> etag,
+                          Consumer<Consumer<T>> producer) throws IOException {
+        String currentEtag;
+        try {
+            currentEtag = etag.get();
+        } catch (RuntimeException e) {
+            error(response, e);
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, currentEtag);
+        if (ETags.matches(ifNoneMatch, currentEtag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        try {
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeNullField("message");
+            json.writeArrayFieldStart("data");
+            producer.accept(item -> {
+                try {
+                    json.writeObject(item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+            json.writeEndObject();
+            json.flush();
+        } catch (RuntimeException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            // Whatever the generator still buffers is discarded with it
+            response.resetBuffer();
+            error(response, e);
+        }
+    }
+
+    /**
+     * Writes a single {@code ApiResponse} body with the same ETag and error handling as {@link #write}, for
+     * handlers that share a mapping with a streamed list.
+     */
+    public void writeObject(HttpServletResponse response, String ifNoneMatch, Supplier<String> etag,
+                            Supplier<?> body) throws IOException {
+        String currentEtag;
+        Object data;
+        try {
+            currentEtag = etag.get();
+            if (ETags.matches(ifNoneMatch, currentEtag)) {
+                response.setHeader(HttpHeaders.ETAG, currentEtag);
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+            data = body.get();
+        } catch (RuntimeException e) {
+            error(response, e);
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, currentEtag);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.success(data));
+    }
+
+    private void error(HttpServletResponse response, RuntimeException e) throws IOException {
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(e.getMessage()));
+    }
+}
@@ -0,0 +1,129 @@
+package com.taskmanager.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.dto.ApiResponse;
+import com.taskmanager.ratelimit.RateLimitProperties;
+import com.taskmanager.ratelimit.RateLimiter;
+import com.taskmanager.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiting per user, falling back to the client IP for anonymous requests.
+ * <p>
+ * Runs after the security chain, so authenticated requests are charged to their user id, and before
+ * {@link DatabaseConcurrencyFilter}, so a throttled request never waits for a database permit. Rejected
+ * requests get a 429 with Retry-After. Behind a load balancer the client IP comes from X-Forwarded-For
+ * (server.forward-headers-strategy).
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ROUTE = "default";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, Counter> rejected = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        registerRoute(DEFAULT_ROUTE);
+        properties.getRoutes().forEach(route -> registerRoute(route.getName()));
+    }
+
+    private void registerRoute(String route) {
+        rejected.put(route, Counter.builder("app.rate_limit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .tag("route", route)
+                .register(meterRegistry));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return path.equals("/health") || path.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitProperties.Route route = match(request);
+        String routeName = route == null ? DEFAULT_ROUTE : route.getName();
+        RateLimitProperties.Limit limit = route == null ? properties.getDefaultLimit() : route.getLimit();
+
+        long waitNanos = rateLimiter.tryAcquire(routeName + ":" + clientKey(request), limit);
+        if (waitNanos > 0) {
+            rejected.get(routeName).increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(waitNanos)));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests, please retry later"));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Whole seconds, rounded up so a client that waits as told finds a token; never 0
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (TimeUnit.NANOSECONDS.toMillis(waitNanos) + 999) / 1000);
+    }
+
+    private RateLimitProperties.Route match(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (route.getParam() != null && request.getParameter(route.getParam()) == null) {
+                continue;
+            }
+            for (String pattern : route.getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "u:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
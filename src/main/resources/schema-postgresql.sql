@@ -0,0 +1,65 @@
+-- Idempotent schema additions applied at startup (spring.sql.init.platform=postgresql).
+-- Tables themselves are managed outside the app; ddl-auto is "validate" in prod.
+
+-- Keyset pagination: GET /tasks?limit=&cursor= and GET /notes?limit=&cursor=
+CREATE INDEX IF NOT EXISTS idx_tasks_user_created ON tasks (user_id, created_at DESC, id DESC);
+-- Note pages filter on is_pinned = :isPinned, which would skip legacy NULLs; they count as unpinned
+UPDATE notes SET is_pinned = false WHERE is_pinned IS NULL;
+ALTER TABLE notes ALTER COLUMN is_pinned SET DEFAULT false, ALTER COLUMN is_pinned SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_notes_user_pinned_created ON notes (user_id, is_pinned DESC, created_at DESC, id DESC);
+
+-- Materialized per-user counters for /stats (see UserStatsService)
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id            UUID PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    task_total         BIGINT NOT NULL DEFAULT 0,
+    task_completed     BIGINT NOT NULL DEFAULT 0,
+    task_high_priority BIGINT NOT NULL DEFAULT 0,
+    note_total         BIGINT NOT NULL DEFAULT 0,
+    note_pinned        BIGINT NOT NULL DEFAULT 0,
+    updated_at         TIMESTAMP
+);
+
+-- Full-text search (app.search.engine=postgres): generated tsvector columns are kept current by
+-- PostgreSQL on every insert/update, and GIN indexes make lookups proportional to the result size
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(description, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_tasks_search ON tasks USING GIN (search_vector);
+
+ALTER TABLE notes ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(content, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_notes_search ON notes USING GIN (search_vector);
+
+-- Optimistic locking (@Version) and ETags; existing rows start at version 0
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE notes ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tags ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Delta sync (GET /sync): keyset scans over (user_id, updated_at, id) plus a tombstone table for deletions
+ALTER TABLE tags ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+UPDATE tags SET updated_at = created_at WHERE updated_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_tasks_user_updated ON tasks (user_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_notes_user_updated ON notes (user_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_tags_user_updated ON tags (user_id, updated_at, id);
+
+CREATE TABLE IF NOT EXISTS tombstones (
+    id          UUID PRIMARY KEY,
+    user_id     UUID        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    entity_type VARCHAR(10) NOT NULL,
+    entity_id   UUID        NOT NULL,
+    deleted_at  TIMESTAMP   NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_tombstones_user_deleted ON tombstones (user_id, deleted_at, id);
+
+-- Refresh-token rotation and logout: revoked token ids, reloaded into memory at startup
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti        VARCHAR(64) PRIMARY KEY,
+    user_id    UUID        NOT NULL,
+    expires_at TIMESTAMP   NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires ON revoked_tokens (expires_at);
+
+-- Sign-out everywhere: per-user token version, reloaded into memory at startup (only users who bumped it)
+CREATE TABLE IF NOT EXISTS token_versions (
+    user_id UUID PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    version BIGINT NOT NULL
+);
@@ -0,0 +1,112 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.security.JwtUtil;
+import com.taskmanager.security.TokenVersionStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtUtil#verify} on the per-request path: a token already in the verified cache against a full
+ * signature check and claims parse (cache disabled), and both against the filter's previous sequence,
+ * which parsed the token four times and rebuilt the key and parser for each parse.
+ * <p>
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.taskmanager.benchmark.JwtVerifyBenchmark}
+ * (the classpath comes from {@code mvn dependency:build-classpath -Dmdep.outputFile=cp.txt}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123";
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = jwtUtil(50_000);
+        uncached = jwtUtil(0);
+        token = cached.generateToken(UUID.randomUUID(), "bench@example.com", "Bench User");
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public Claims cacheHit() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public Claims fullParse() {
+        return uncached.verify(token);
+    }
+
+    // extractUsername, the expiry in the debug log, then validateToken's extractUsername and extractExpiration
+    @Benchmark
+    public boolean previousFilter() {
+        String username = previousParse(token).getSubject();
+        previousParse(token).getExpiration();
+        return username.equals(previousParse(token).getSubject())
+                && !previousParse(token).getExpiration().before(new Date());
+    }
+
+    private static Claims previousParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    static JwtUtil jwtUtil(long cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 1_209_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", cacheSize);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "tokenVersionStore", new TokenVersionStore() {
+            @Override
+            public long currentVersion(UUID userId) {
+                return 0;
+            }
+
+            @Override
+            public long revokeAll(UUID userId) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerifyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,143 @@
+package com.taskmanager.benchmark;
+
+import com.taskmanager.TaskNotesApiApplication;
+import com.taskmanager.entity.Note;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.search.LikeSearchService;
+import com.taskmanager.search.MemorySearchService;
+import com.taskmanager.search.PostgresSearchService;
+import com.taskmanager.search.SearchService;
+import com.taskmanager.support.TestDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of the three engines for one user owning {@code rows} tasks and as many notes: the in-process
+ * inverted index (index already built), PostgreSQL full-text search and the LIKE scan. Each call includes
+ * loading the matching entities, as SearchService callers see it.
+ * <p>
+ * {@code k004242} matches a single row; {@code w07} matches 1% of them. Needs the database of
+ * {@link TestDatabase} ({@code -Dtest.database.url=...} or Docker), which is wiped. Run like
+ * {@link JwtVerifyBenchmark}, passing the database property to the forked JVMs with {@code -jvmArgs}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    @Param({"k004242", "w07"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private SearchService memory;
+    private SearchService postgres;
+    private SearchService like;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskNotesApiApplication.class)
+                .profiles("test")
+                .properties(TestDatabase.properties())
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        var beanFactory = context.getAutowireCapableBeanFactory();
+        memory = beanFactory.createBean(MemorySearchService.class);
+        postgres = beanFactory.createBean(PostgresSearchService.class);
+        like = beanFactory.createBean(LikeSearchService.class);
+
+        user = new User();
+        user.setEmail("bench@example.com");
+        user.setPasswordHash("unused");
+        user.setFullName("Bench User");
+        user = context.getBean(UserRepository.class).save(user);
+        seed(context.getBean(JdbcTemplate.class));
+
+        // Builds the user's index
+        memory.searchTasks(user, query);
+        memory.searchNotes(user, query);
+    }
+
+    // Titles carry a unique k-token and one of 100 w-tokens; the bodies are the same filler text throughout
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO tasks (id, user_id, title, description, priority, completed, version, " +
+                "created_at, updated_at) " +
+                "SELECT gen_random_uuid(), ?, 'Task k' || lpad(i::text, 6, '0') || ' w' || lpad((i % 100)::text, 2, '0'), " +
+                "'Remember to check the details before the deadline', 'medium', false, 0, " +
+                "now() - i * interval '1 second', now() - i * interval '1 second' " +
+                "FROM generate_series(1, ?) AS i", user.getId(), rows);
+        jdbc.update("INSERT INTO notes (id, user_id, title, content, is_pinned, version, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), ?, 'Note k' || lpad(i::text, 6, '0') || ' w' || lpad((i % 100)::text, 2, '0'), " +
+                "'Some longer thoughts written down so they are not forgotten', false, 0, " +
+                "now() - i * interval '1 second', now() - i * interval '1 second' " +
+                "FROM generate_series(1, ?) AS i", user.getId(), rows);
+        jdbc.execute("ANALYZE tasks");
+        jdbc.execute("ANALYZE notes");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Task> memoryTasks() {
+        return memory.searchTasks(user, query);
+    }
+
+    @Benchmark
+    public List<Task> postgresTasks() {
+        return postgres.searchTasks(user, query);
+    }
+
+    @Benchmark
+    public List<Task> likeTasks() {
+        return like.searchTasks(user, query);
+    }
+
+    @Benchmark
+    public List<Note> memoryNotes() {
+        return memory.searchNotes(user, query);
+    }
+
+    @Benchmark
+    public List<Note> postgresNotes() {
+        return postgres.searchNotes(user, query);
+    }
+
+    @Benchmark
+    public List<Note> likeNotes() {
+        return like.searchNotes(user, query);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.event.ChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the transaction callbacks by hand, the way the transaction manager would.
+ */
+class InvalidationPublisherTest {
+
+    private final List<List<Invalidation>> broadcasts = new ArrayList<>();
+    private final InvalidationPublisher publisher = new InvalidationPublisher();
+    private final UUID userId = UUID.randomUUID();
+
+    InvalidationPublisherTest() {
+        ReflectionTestUtils.setField(publisher, "invalidationBus", new InvalidationBus() {
+            @Override
+            public void broadcast(List<Invalidation> batch) {
+                broadcasts.add(batch);
+            }
+
+            @Override
+            public void subscribe(Consumer<List<Invalidation>> handler) {
+            }
+        });
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void broadcastsRightAwayOutsideATransaction() {
+        Invalidation user = Invalidation.user(userId, "a@example.com");
+
+        publisher.publish(user);
+
+        assertThat(broadcasts).containsExactly(List.of(user));
+    }
+
+    @Test
+    void sendsOneDeduplicatedBatchBeforeCommit() {
+        UUID taskId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.onChange(ChangeEvent.of(userId, ChangeEvent.TASK, taskId, ChangeEvent.Action.CREATED));
+        publisher.onChange(ChangeEvent.of(userId, ChangeEvent.TASK, taskId, ChangeEvent.Action.UPDATED));
+        publisher.publish(Invalidation.user(userId, "a@example.com"));
+        assertThat(broadcasts).isEmpty();
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(broadcasts).containsExactly(List.of(
+                new Invalidation(ChangeEvent.TASK, userId, taskId.toString()),
+                Invalidation.user(userId, "a@example.com")));
+        assertThat(TransactionSynchronizationManager.hasResource(publisher)).isFalse();
+    }
+
+    @Test
+    void dropsTheBatchOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish(Invalidation.user(userId, "a@example.com"));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(broadcasts).isEmpty();
+        assertThat(TransactionSynchronizationManager.hasResource(publisher)).isFalse();
+    }
+
+    @Test
+    void startsAFreshBatchForTheNextTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish(Invalidation.user(userId, "a@example.com"));
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish(Invalidation.user(userId, "b@example.com"));
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(broadcasts).containsExactly(
+                List.of(Invalidation.user(userId, "a@example.com")),
+                List.of(Invalidation.user(userId, "b@example.com")));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+}
@@ -0,0 +1,48 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.event.ChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvalidationTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void roundTripsThroughTheWireForm() {
+        UUID taskId = UUID.randomUUID();
+        Invalidation invalidation = Invalidation.of(ChangeEvent.of(userId, ChangeEvent.TASK, taskId,
+                ChangeEvent.Action.UPDATED));
+
+        assertThat(invalidation.encode()).isEqualTo("task:" + userId + ":" + taskId);
+        assertThat(Invalidation.decode(invalidation.encode())).isEqualTo(invalidation);
+    }
+
+    @Test
+    void keepsColonsInsideTheId() {
+        Invalidation user = Invalidation.user(userId, "\"a:b\"@example.com");
+        Invalidation token = new Invalidation(Invalidation.TOKEN, userId, "jti:1@1760000000000");
+
+        assertThat(Invalidation.decode(user.encode())).isEqualTo(user);
+        assertThat(Invalidation.decode(token.encode())).isEqualTo(token);
+    }
+
+    @Test
+    void passesUnknownTypesThroughForHandlersToIgnore() {
+        assertThat(Invalidation.decode("widget:" + userId + ":42"))
+                .isEqualTo(new Invalidation("widget", userId, "42"));
+    }
+
+    @Test
+    void returnsNullForLinesItCannotParse() {
+        assertThat(Invalidation.decode("")).isNull();
+        assertThat(Invalidation.decode("task")).isNull();
+        assertThat(Invalidation.decode("task:" + userId)).isNull();
+        assertThat(Invalidation.decode("task:not-a-uuid:42")).isNull();
+        // ALL is raised locally only and never travels
+        assertThat(Invalidation.decode(Invalidation.all().encode())).isNull();
+    }
+}
@@ -0,0 +1,141 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.support.IntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The bus against a real server, observed from a second LISTEN connection standing in for another node.
+ */
+@TestPropertySource(properties = {
+        "app.cache.invalidation.bus=postgres",
+        "app.cache.invalidation.channel=cache_invalidation_test",
+        "app.cache.invalidation.poll-ms=50"
+})
+class PostgresInvalidationBusTest extends IntegrationTest {
+
+    private static final String CHANNEL = "cache_invalidation_test";
+    private static final int NOTIFY_MAX_BYTES = 8000;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Connection otherNode;
+
+    @BeforeEach
+    void listen() throws SQLException {
+        otherNode = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = otherNode.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        otherNode.close();
+    }
+
+    @Test
+    void splitsLargeBatchesUnderTheNotifyLimit() throws SQLException {
+        assertThat(invalidationBus).isInstanceOf(PostgresInvalidationBus.class);
+        UUID userId = UUID.randomUUID();
+        List<Invalidation> batch = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            // Three UTF-8 bytes per char, the worst case the chunking allows for
+            batch.add(Invalidation.user(userId, "用户".repeat(10) + i + "@example.com"));
+        }
+
+        invalidationBus.broadcast(batch);
+
+        List<String> payloads = receive(2_000);
+        assertThat(payloads).hasSizeGreaterThan(1);
+        String nodeId = payloads.get(0).split("\n")[0];
+        List<Invalidation> entries = new ArrayList<>();
+        for (String payload : payloads) {
+            assertThat(payload.getBytes(StandardCharsets.UTF_8).length).isLessThan(NOTIFY_MAX_BYTES);
+            String[] lines = payload.split("\n");
+            assertThat(lines[0]).isEqualTo(nodeId);
+            assertThat(lines).hasSizeGreaterThan(1);
+            Arrays.stream(lines).skip(1).map(Invalidation::decode).forEach(entries::add);
+        }
+        assertThat(entries).containsExactlyElementsOf(batch);
+    }
+
+    @Test
+    void sendsWithTheCommitAndNotOnRollback() throws SQLException {
+        Invalidation rolledBack = Invalidation.user(UUID.randomUUID(), "rolled-back@example.com");
+        Invalidation committed = Invalidation.user(UUID.randomUUID(), "committed@example.com");
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        template.executeWithoutResult(status -> {
+            invalidationBus.broadcast(List.of(rolledBack));
+            status.setRollbackOnly();
+        });
+        template.executeWithoutResult(status -> invalidationBus.broadcast(List.of(committed)));
+
+        List<String> payloads = receive(500);
+        assertThat(payloads).hasSize(1);
+        assertThat(payloads.get(0)).endsWith("\n" + committed.encode());
+    }
+
+    @Test
+    void deliversOtherNodesBatchesAndSkipsUnreadableLines() throws InterruptedException {
+        List<List<Invalidation>> delivered = new CopyOnWriteArrayList<>();
+        invalidationBus.subscribe(delivered::add);
+        Invalidation user = Invalidation.user(UUID.randomUUID(), "a:b@example.com");
+
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL,
+                UUID.randomUUID() + "\nnot an entry\n" + user.encode());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (delivered.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(delivered).containsExactly(List.of(user));
+    }
+
+    // Collects notifications until none arrives for quietMs
+    private List<String> receive(int quietMs) throws SQLException {
+        PGConnection pg = otherNode.unwrap(PGConnection.class);
+        List<String> payloads = new ArrayList<>();
+        PGNotification[] notifications;
+        while ((notifications = pg.getNotifications(quietMs)) != null && notifications.length > 0) {
+            for (PGNotification notification : notifications) {
+                payloads.add(notification.getParameter());
+            }
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,159 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.entity.User;
+import com.taskmanager.event.ChangeEvent;
+import com.taskmanager.event.ChangeEventBus;
+import com.taskmanager.security.JwtUtil;
+import com.taskmanager.support.IntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many /events streams on a real server, a few of them held by clients that never read. Their sends stall
+ * once the socket buffers fill; the heartbeat must close them while every other stream keeps receiving.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.events.heartbeat-ms=200",
+        "app.events.send-timeout-ms=500",
+        "app.events.buffer-size=200000",
+        "server.tomcat.connection-timeout=2s"
+})
+class EventStreamTest extends IntegrationTest {
+
+    private static final int FAST_USERS = 5;
+    private static final int STREAMS_PER_USER = 8;
+    private static final int SLOW_STREAMS = 4;
+    private static final int SLOW_EVENTS = 100_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ExecutorService readers = Executors.newCachedThreadPool();
+    private final List<Stream<String>> fastStreams = new ArrayList<>();
+    private final List<Socket> slowSockets = new ArrayList<>();
+
+    @AfterEach
+    void closeStreams() throws IOException {
+        fastStreams.forEach(Stream::close);
+        for (Socket socket : slowSockets) {
+            socket.close();
+        }
+        readers.shutdownNow();
+    }
+
+    @Test
+    void stalledReadersAreClosedWhileOthersKeepReceiving() throws Exception {
+        double subscribersBefore = subscribers();
+        double stalledBefore = meterRegistry.get("app.events.stalled").counter().count();
+        UUID marker = UUID.randomUUID();
+
+        List<User> fastUsers = new ArrayList<>();
+        List<CompletableFuture<Boolean>> received = new ArrayList<>();
+        for (int u = 0; u < FAST_USERS; u++) {
+            User user = createUser();
+            fastUsers.add(user);
+            for (int s = 0; s < STREAMS_PER_USER; s++) {
+                received.add(readUntil(user, marker));
+            }
+        }
+        User slowUser = createUser();
+        for (int s = 0; s < SLOW_STREAMS; s++) {
+            openWithoutReading(slowUser);
+        }
+        int fastCount = FAST_USERS * STREAMS_PER_USER;
+        await(() -> subscribers() == subscribersBefore + fastCount + SLOW_STREAMS);
+
+        for (int i = 0; i < SLOW_EVENTS; i++) {
+            changeEventBus.onChange(ChangeEvent.of(slowUser.getId(), ChangeEvent.TASK, UUID.randomUUID(),
+                    ChangeEvent.Action.UPDATED));
+        }
+        for (User user : fastUsers) {
+            for (int i = 0; i < 50; i++) {
+                changeEventBus.onChange(ChangeEvent.of(user.getId(), ChangeEvent.NOTE, UUID.randomUUID(),
+                        ChangeEvent.Action.CREATED));
+            }
+            changeEventBus.onChange(ChangeEvent.of(user.getId(), ChangeEvent.TASK, marker, ChangeEvent.Action.DELETED));
+        }
+
+        CompletableFuture.allOf(received.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        assertThat(received).allMatch(CompletableFuture::join);
+
+        await(() -> subscribers() == subscribersBefore + fastCount);
+        assertThat(meterRegistry.get("app.events.stalled").counter().count()).isGreaterThan(stalledBefore);
+    }
+
+    // Completes with true once the stream delivers an event carrying the marker id
+    private CompletableFuture<Boolean> readUntil(User user, UUID marker) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/events"))
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(user))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        Stream<String> lines = response.body();
+        fastStreams.add(lines);
+        return CompletableFuture.supplyAsync(() -> lines.anyMatch(line -> line.contains(marker.toString())), readers);
+    }
+
+    // A tiny receive window that is never drained: the server's writes block once its send buffer is full
+    private void openWithoutReading(User user) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(1024);
+        socket.connect(new InetSocketAddress("localhost", port));
+        slowSockets.add(socket);
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /events HTTP/1.1\r\n" +
+                "Host: localhost:" + port + "\r\n" +
+                "Authorization: Bearer " + jwtUtil.generateToken(user) + "\r\n" +
+                "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("app.events.subscribers").gauge().value();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 30 s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
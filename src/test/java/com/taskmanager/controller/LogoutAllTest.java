@@ -0,0 +1,82 @@
+package com.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * POST /auth/logout-all over HTTP: every session issued before it stops working, later logins do not.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LogoutAllTest extends IntegrationTest {
+
+    private static final String PASSWORD = "correct horse battery";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void endsEverySessionIssuedBefore() throws Exception {
+        String email = "user-" + UUID.randomUUID() + "@example.com";
+        JsonNode laptop = data(post("/auth/signup", null, Map.of("email", email, "password", PASSWORD,
+                "fullName", "Test User")));
+        JsonNode phone = data(post("/auth/login", null, Map.of("email", email, "password", PASSWORD)));
+        assertThat(getTasks(phone.get("token").asText()).statusCode()).isEqualTo(200);
+
+        assertThat(post("/auth/logout-all", laptop.get("token").asText(), Map.of()).statusCode()).isEqualTo(200);
+
+        assertThat(getTasks(laptop.get("token").asText()).statusCode()).isIn(401, 403);
+        assertThat(getTasks(phone.get("token").asText()).statusCode()).isIn(401, 403);
+        assertThat(post("/auth/refresh", null, Map.of("refreshToken", phone.get("refreshToken").asText()))
+                .statusCode()).isEqualTo(401);
+
+        JsonNode again = data(post("/auth/login", null, Map.of("email", email, "password", PASSWORD)));
+        assertThat(getTasks(again.get("token").asText()).statusCode()).isEqualTo(200);
+        assertThat(post("/auth/refresh", null, Map.of("refreshToken", again.get("refreshToken").asText()))
+                .statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void requiresAnAccessToken() throws Exception {
+        assertThat(post("/auth/logout-all", null, Map.of()).statusCode()).isEqualTo(401);
+    }
+
+    private HttpResponse<String> post(String path, String token, Map<String, String> body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> getTasks(String token) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks"))
+                .header("Authorization", "Bearer " + token)
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode data(HttpResponse<String> response) throws Exception {
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("data");
+    }
+}
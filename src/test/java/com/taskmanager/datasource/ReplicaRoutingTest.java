@@ -0,0 +1,138 @@
+package com.taskmanager.datasource;
+
+import com.taskmanager.cache.Invalidation;
+import com.taskmanager.cache.InvalidationBus;
+import com.taskmanager.dto.TaskDTO;
+import com.taskmanager.entity.User;
+import com.taskmanager.event.ChangeEvent;
+import com.taskmanager.service.TaskService;
+import com.taskmanager.support.IntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routing between two pools on the same database (the replica profile), observed through the
+ * app.datasource.routed and app.datasource.sticky_reads counters.
+ */
+@ActiveProfiles({"test", "replica"})
+class ReplicaRoutingTest extends IntegrationTest {
+
+    private static final String REPLICA = "replica-1";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        signIn();
+        double replicaBefore = routed(REPLICA);
+        double primaryBefore = routed(ReplicaRoutingDataSource.PRIMARY);
+
+        countTasksReadOnly();
+
+        assertThat(routed(REPLICA)).isEqualTo(replicaBefore + 1);
+        assertThat(routed(ReplicaRoutingDataSource.PRIMARY)).isEqualTo(primaryBefore);
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        signIn();
+        double replicaBefore = routed(REPLICA);
+        double primaryBefore = routed(ReplicaRoutingDataSource.PRIMARY);
+
+        createTask();
+
+        assertThat(routed(REPLICA)).isEqualTo(replicaBefore);
+        assertThat(routed(ReplicaRoutingDataSource.PRIMARY)).isGreaterThan(primaryBefore);
+    }
+
+    @Test
+    void replicaConnectionsRefuseWrites() {
+        TransactionTemplate template = readOnlyTemplate();
+
+        assertThatThrownBy(() -> template.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE tasks SET title = title WHERE id = ?", UUID.randomUUID())))
+                .hasMessageContaining("read-only transaction");
+    }
+
+    @Test
+    void readsStayOnThePrimaryAfterTheUsersOwnWrite() throws InterruptedException {
+        signIn();
+        createTask();
+        double stickyBefore = meterRegistry.get("app.datasource.sticky_reads").counter().count();
+        double replicaBefore = routed(REPLICA);
+
+        countTasksReadOnly();
+
+        assertThat(routed(REPLICA)).isEqualTo(replicaBefore);
+        assertThat(meterRegistry.get("app.datasource.sticky_reads").counter().count()).isEqualTo(stickyBefore + 1);
+
+        // Another user's reads are not held back by the write
+        signIn();
+        countTasksReadOnly();
+        assertThat(routed(REPLICA)).isEqualTo(replicaBefore + 1);
+
+        // read-your-writes-ms is 500 in the replica profile
+        Thread.sleep(700);
+        countTasksReadOnly();
+        assertThat(routed(REPLICA)).isEqualTo(replicaBefore + 2);
+    }
+
+    // A cache miss right after another node's write must not reload the evicted row from a lagging replica
+    @Test
+    void readsStayOnThePrimaryAfterAnotherNodesWrite() {
+        User user = signIn();
+        double stickyBefore = meterRegistry.get("app.datasource.sticky_reads").counter().count();
+        double replicaBefore = routed(REPLICA);
+
+        invalidationBus.broadcast(List.of(
+                new Invalidation(ChangeEvent.TASK, user.getId(), UUID.randomUUID().toString())));
+        countTasksReadOnly();
+
+        assertThat(routed(REPLICA)).isEqualTo(replicaBefore);
+        assertThat(meterRegistry.get("app.datasource.sticky_reads").counter().count()).isEqualTo(stickyBefore + 1);
+    }
+
+    private void createTask() {
+        TaskDTO.CreateTaskRequest request = new TaskDTO.CreateTaskRequest();
+        request.setTitle("Routed");
+        taskService.createTask(request);
+    }
+
+    private void countTasksReadOnly() {
+        readOnlyTemplate().execute(status -> jdbcTemplate.queryForObject("SELECT count(*) FROM tasks", Long.class));
+    }
+
+    private TransactionTemplate readOnlyTemplate() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private double routed(String pool) {
+        return meterRegistry.get("app.datasource.routed").tag("pool", pool).counter().count();
+    }
+}
@@ -0,0 +1,134 @@
+package com.taskmanager.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The bus at its default limits: 10 000 subscribers on one node (1 000 users with 10 streams each, the
+ * per-user maximum) fed by concurrent publishers, with in-memory sinks in place of HTTP streams.
+ */
+class ChangeEventBusLoadTest {
+
+    private static final int MAX_SUBSCRIBERS = 10_000;
+    private static final int STREAMS_PER_USER = 10;
+    private static final int USERS = MAX_SUBSCRIBERS / STREAMS_PER_USER;
+    private static final int EVENTS_PER_USER = 20;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChangeEventBus bus = new ChangeEventBus();
+    private final Map<UUID, Long> publishedAt = new ConcurrentHashMap<>();
+    private final List<UUID> users = new ArrayList<>();
+    private final List<RecordingSink> sinks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bus, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(bus, "bufferSize", 256);
+        ReflectionTestUtils.setField(bus, "dispatchThreads", 4);
+        ReflectionTestUtils.setField(bus, "maxSubscribers", MAX_SUBSCRIBERS);
+        ReflectionTestUtils.setField(bus, "maxSubscribersPerUser", STREAMS_PER_USER);
+        ReflectionTestUtils.setField(bus, "sendTimeoutMs", 10_000L);
+        bus.init();
+
+        for (int u = 0; u < USERS; u++) {
+            UUID userId = UUID.randomUUID();
+            users.add(userId);
+            for (int s = 0; s < STREAMS_PER_USER; s++) {
+                RecordingSink sink = new RecordingSink();
+                assertThat(bus.subscribe(userId, sink)).isNotNull();
+                sinks.add(sink);
+            }
+        }
+    }
+
+    @AfterEach
+    void shutdown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void deliversEveryEventToTenThousandSubscribersPromptly() throws Exception {
+        assertThat(meterRegistry.get("app.events.subscribers").gauge().value()).isEqualTo(MAX_SUBSCRIBERS);
+        assertThat(bus.subscribe(UUID.randomUUID(), new RecordingSink())).isNull();
+
+        ExecutorService publishers = Executors.newFixedThreadPool(8);
+        for (UUID userId : users) {
+            publishers.execute(() -> {
+                for (int i = 0; i < EVENTS_PER_USER; i++) {
+                    UUID id = UUID.randomUUID();
+                    publishedAt.put(id, System.nanoTime());
+                    bus.onChange(ChangeEvent.of(userId, ChangeEvent.TASK, id, ChangeEvent.Action.UPDATED));
+                }
+            });
+        }
+        publishers.shutdown();
+        assertThat(publishers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        for (RecordingSink sink : sinks) {
+            assertThat(sink.received.await(30, TimeUnit.SECONDS)).isTrue();
+        }
+        long total = (long) MAX_SUBSCRIBERS * EVENTS_PER_USER;
+        assertThat(meterRegistry.get("app.events.delivered").counter().count()).isEqualTo(total);
+        assertThat(meterRegistry.get("app.events.dropped").counter().count()).isZero();
+        assertThat(sinks).noneMatch(sink -> sink.overflowed);
+
+        List<Long> latencies = new ArrayList<>();
+        sinks.forEach(sink -> latencies.addAll(sink.latencies));
+        latencies.sort(null);
+        assertThat(latencies).hasSize((int) total);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(latencies.get(latencies.size() * 99 / 100)))
+                .as("p99 publish-to-send latency (ms)").isLessThan(1_000);
+    }
+
+    @Test
+    void heartbeatsReachEverySubscriber() throws InterruptedException {
+        bus.heartbeat();
+
+        for (RecordingSink sink : sinks) {
+            assertThat(sink.heartbeat.await(30, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(meterRegistry.get("app.events.subscribers").gauge().value()).isEqualTo(MAX_SUBSCRIBERS);
+    }
+
+    // Called by one dispatcher thread at a time
+    private final class RecordingSink implements ChangeEventBus.Sink {
+        private final CountDownLatch received = new CountDownLatch(EVENTS_PER_USER);
+        private final CountDownLatch heartbeat = new CountDownLatch(1);
+        private final List<Long> latencies = new ArrayList<>(EVENTS_PER_USER);
+        private volatile boolean overflowed;
+
+        @Override
+        public void send(List<ChangeEvent> events, boolean overflowed) {
+            long now = System.nanoTime();
+            this.overflowed |= overflowed;
+            for (ChangeEvent event : events) {
+                latencies.add(now - publishedAt.get(event.id()));
+                received.countDown();
+            }
+        }
+
+        @Override
+        public void heartbeat() {
+            heartbeat.countDown();
+        }
+
+        @Override
+        public void abort(Exception cause) {
+        }
+    }
+}
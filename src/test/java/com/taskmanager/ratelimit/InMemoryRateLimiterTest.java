@@ -0,0 +1,105 @@
+package com.taskmanager.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final InMemoryRateLimiter rateLimiter = new InMemoryRateLimiter();
+    private long now = 1_000 * SECOND;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rateLimiter, "properties", new RateLimitProperties());
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", new SimpleMeterRegistry());
+        rateLimiter.init();
+        rateLimiter.nanoClock = () -> now;
+    }
+
+    @Test
+    void allowsTheBurstThenReportsTheWaitForTheNextToken() {
+        RateLimitProperties.Limit limit = limit(3, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("k", limit)).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("k", limit)).isEqualTo(SECOND);
+
+        now += SECOND / 4;
+        assertThat(rateLimiter.tryAcquire("k", limit)).isEqualTo(SECOND * 3 / 4);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        RateLimitProperties.Limit limit = limit(2, 0.2);
+        rateLimiter.tryAcquire("k", limit);
+        rateLimiter.tryAcquire("k", limit);
+        assertThat(rateLimiter.tryAcquire("k", limit)).isEqualTo(5 * SECOND);
+
+        now += 5 * SECOND;
+        assertThat(rateLimiter.tryAcquire("k", limit)).isZero();
+        assertThat(rateLimiter.tryAcquire("k", limit)).isEqualTo(5 * SECOND);
+    }
+
+    @Test
+    void anIdleBucketRefillsOnlyUpToItsCapacity() {
+        RateLimitProperties.Limit limit = limit(2, 1);
+        rateLimiter.tryAcquire("k", limit);
+
+        now += 3600 * SECOND;
+
+        assertThat(rateLimiter.tryAcquire("k", limit)).isZero();
+        assertThat(rateLimiter.tryAcquire("k", limit)).isZero();
+        assertThat(rateLimiter.tryAcquire("k", limit)).isPositive();
+    }
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        RateLimitProperties.Limit limit = limit(1, 1);
+
+        assertThat(rateLimiter.tryAcquire("a", limit)).isZero();
+        assertThat(rateLimiter.tryAcquire("a", limit)).isPositive();
+        assertThat(rateLimiter.tryAcquire("b", limit)).isZero();
+    }
+
+    // nanoTime may be any value, negative included; a new bucket must still start full
+    @Test
+    void aNewBucketIsFullWhateverTheClockReads() {
+        RateLimitProperties.Limit limit = limit(2, 1);
+        for (long start : new long[]{Long.MIN_VALUE + 1, -SECOND, 0, Long.MAX_VALUE - SECOND}) {
+            now = start;
+            String key = "k" + start;
+
+            assertThat(rateLimiter.tryAcquire(key, limit)).isZero();
+            assertThat(rateLimiter.tryAcquire(key, limit)).isZero();
+            assertThat(rateLimiter.tryAcquire(key, limit)).isEqualTo(SECOND);
+        }
+    }
+
+    @Test
+    void survivesTheClockWrappingAround() {
+        RateLimitProperties.Limit limit = limit(1, 1);
+        now = Long.MAX_VALUE - SECOND / 2;
+        assertThat(rateLimiter.tryAcquire("k", limit)).isZero();
+        assertThat(rateLimiter.tryAcquire("k", limit)).isEqualTo(SECOND);
+
+        now += SECOND;
+        assertThat(now).isNegative();
+        assertThat(rateLimiter.tryAcquire("k", limit)).isZero();
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity, double refillPerSecond) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+}
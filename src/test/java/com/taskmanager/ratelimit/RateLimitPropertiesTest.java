@@ -0,0 +1,38 @@
+package com.taskmanager.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitPropertiesTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(RateLimitConfig.class);
+
+    @Test
+    void bindsPositiveLimits() {
+        runner.withPropertyValues(
+                        "app.rate-limit.default-limit.capacity=10",
+                        "app.rate-limit.default-limit.refill-per-second=0.2")
+                .run(context -> assertThat(context.getBean(RateLimitProperties.class).getDefaultLimit()
+                        .getRefillPerSecond()).isEqualTo(0.2));
+    }
+
+    @Test
+    void rejectsAZeroCapacity() {
+        runner.withPropertyValues("app.rate-limit.default-limit.capacity=0")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().rootCause().hasMessageContaining("app.rate-limit.default-limit.capacity"));
+    }
+
+    @Test
+    void rejectsARouteThatNeverRefills() {
+        runner.withPropertyValues(
+                        "app.rate-limit.routes[0].name=auth",
+                        "app.rate-limit.routes[0].paths=/auth/**",
+                        "app.rate-limit.routes[0].limit.refill-per-second=0")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().rootCause().hasMessageContaining("app.rate-limit.routes[0].limit.refill-per-second"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.taskmanager.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    void matchesEveryTermAsPrefixMostRecentFirst() {
+        UUID milk = put("Buy milk", "from the corner shop");
+        UUID bread = put("Buy bread", null);
+
+        assertThat(index.search("bu")).containsExactly(bread, milk);
+        assertThat(index.search("buy mil")).containsExactly(milk);
+        assertThat(index.search("BUY, Corner!")).containsExactly(milk);
+        assertThat(index.search("buy cheese")).isEmpty();
+        assertThat(index.search(" ?! ")).isEmpty();
+    }
+
+    @Test
+    void findsCjkWordsInsideLongerRuns() {
+        UUID milk = put("买牛奶", "记得去超市");
+        UUID bread = put("买面包和牛油", null);
+        UUID mixed = put("iphone手机壳", null);
+
+        assertThat(index.search("牛奶")).containsExactly(milk);
+        assertThat(index.search("牛")).containsExactly(bread, milk);
+        assertThat(index.search("买")).containsExactly(bread, milk);
+        assertThat(index.search("超市 买")).containsExactly(milk);
+        assertThat(index.search("奶牛")).isEmpty();
+        assertThat(index.search("手机")).containsExactly(mixed);
+        assertThat(index.search("iph")).containsExactly(mixed);
+    }
+
+    @Test
+    void reindexedAndRemovedDocumentsSurviveCompaction() {
+        UUID kept = put("keep me", null);
+        UUID changed = put("old title", null);
+        index.put(changed, "new title", null);
+        for (int i = 0; i < 3000; i++) {
+            UUID temporary = put("temporary " + i, null);
+            index.remove(temporary);
+        }
+
+        assertThat(index.search("old")).isEmpty();
+        assertThat(index.search("title")).containsExactly(changed);
+        assertThat(index.search("keep")).containsExactly(kept);
+        assertThat(index.search("temporary")).isEmpty();
+    }
+
+    private UUID put(String title, String body) {
+        UUID id = UUID.randomUUID();
+        index.put(id, title, body);
+        return id;
+    }
+}
@@ -0,0 +1,86 @@
+package com.taskmanager.search;
+
+import com.taskmanager.cache.Invalidation;
+import com.taskmanager.cache.InvalidationBus;
+import com.taskmanager.entity.Note;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.event.ChangeEvent;
+import com.taskmanager.repository.NoteRepository;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes through the repositories bypass the service hooks, standing in for writes made on another node;
+ * the loopback bus then delivers what that node would have broadcast.
+ */
+@TestPropertySource(properties = "app.search.engine=memory")
+class MemorySearchServiceTest extends IntegrationTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Test
+    void rebuildsAUsersIndexAfterAnotherNodeWritesATask() {
+        assertThat(searchService).isInstanceOf(MemorySearchService.class);
+        User user = createUser();
+        Task milk = task(user, "Buy milk");
+        assertThat(searchService.searchTasks(user, "milk")).extracting(Task::getId).containsExactly(milk.getId());
+
+        milk.setTitle("Buy bread");
+        taskRepository.save(milk);
+        Task cow = task(user, "Milk the cow");
+        assertThat(searchService.searchTasks(user, "bread")).isEmpty();
+
+        invalidationBus.broadcast(List.of(new Invalidation(ChangeEvent.TASK, user.getId(), cow.getId().toString())));
+
+        assertThat(searchService.searchTasks(user, "milk")).extracting(Task::getId).containsExactly(cow.getId());
+        assertThat(searchService.searchTasks(user, "bread")).extracting(Task::getId).containsExactly(milk.getId());
+    }
+
+    @Test
+    void keepsOtherUsersIndexesOnATargetedInvalidation() {
+        User user = createUser();
+        User other = createUser();
+        task(user, "Buy milk");
+        searchService.searchTasks(user, "milk");
+        searchService.searchTasks(other, "milk");
+        Note missed = note(other, "Milk prices");
+
+        invalidationBus.broadcast(List.of(new Invalidation(ChangeEvent.NOTE, user.getId(), missed.getId().toString())));
+        assertThat(searchService.searchNotes(other, "milk")).isEmpty();
+
+        invalidationBus.broadcast(List.of(Invalidation.all()));
+        assertThat(searchService.searchNotes(other, "milk")).extracting(Note::getId).containsExactly(missed.getId());
+    }
+
+    private Task task(User user, String title) {
+        Task task = new Task();
+        task.setUser(user);
+        task.setTitle(title);
+        return taskRepository.save(task);
+    }
+
+    private Note note(User user, String title) {
+        Note note = new Note();
+        note.setUser(user);
+        note.setTitle(title);
+        return noteRepository.save(note);
+    }
+}
@@ -0,0 +1,25 @@
+package com.taskmanager.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostgresSearchQueryTest {
+
+    @Test
+    void detectsCjkQueries() {
+        assertThat(PostgresSearchService.containsCjk("牛奶")).isTrue();
+        assertThat(PostgresSearchService.containsCjk("buy 牛奶")).isTrue();
+        assertThat(PostgresSearchService.containsCjk("ミルク")).isTrue();
+        assertThat(PostgresSearchService.containsCjk("우유")).isTrue();
+        assertThat(PostgresSearchService.containsCjk("café")).isFalse();
+        assertThat(PostgresSearchService.containsCjk(null)).isFalse();
+    }
+
+    @Test
+    void stripsTsQuerySyntaxFromUserInput() {
+        assertThat(PostgresSearchService.toPrefixTsQuery("Buy milk!")).isEqualTo("buy:* & milk:*");
+        assertThat(PostgresSearchService.toPrefixTsQuery("a & !b | c:*")).isEqualTo("a:* & b:* & c:*");
+        assertThat(PostgresSearchService.toPrefixTsQuery(" ?! ")).isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package com.taskmanager.search;
+
+import com.taskmanager.entity.Note;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.NoteRepository;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostgresSearchServiceTest extends IntegrationTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Test
+    void matchesWordPrefixesThroughTheSearchVector() {
+        User user = createUser();
+        Task milk = task(user, "Buy milk", "from the corner shop");
+        task(user, "Walk the dog", null);
+
+        assertThat(searchService.searchTasks(user, "mil")).extracting(Task::getId).containsExactly(milk.getId());
+        assertThat(searchService.searchTasks(user, "corner buy")).extracting(Task::getId).containsExactly(milk.getId());
+        assertThat(searchService.searchTasks(user, "milk dog")).isEmpty();
+    }
+
+    @Test
+    void matchesChineseWordsInsideLongerRuns() {
+        User user = createUser();
+        Task milk = task(user, "买牛奶", "超市");
+        task(user, "遛狗", null);
+        Note note = note(user, "周末计划", "去超市买牛奶和面包");
+
+        assertThat(searchService.searchTasks(user, "牛奶")).extracting(Task::getId).containsExactly(milk.getId());
+        assertThat(searchService.searchNotes(user, "面包")).extracting(Note::getId).containsExactly(note.getId());
+        assertThat(searchService.searchTasks(user, "咖啡")).isEmpty();
+    }
+
+    @Test
+    void onlySearchesTheUsersOwnRows() {
+        User owner = createUser();
+        task(owner, "买牛奶", null);
+        task(owner, "Buy milk", null);
+        User other = createUser();
+
+        assertThat(searchService.searchTasks(other, "牛奶")).isEmpty();
+        assertThat(searchService.searchTasks(other, "milk")).isEmpty();
+    }
+
+    private Task task(User user, String title, String description) {
+        Task task = new Task();
+        task.setUser(user);
+        task.setTitle(title);
+        task.setDescription(description);
+        return taskRepository.save(task);
+    }
+
+    private Note note(User user, String title, String content) {
+        Note note = new Note();
+        note.setUser(user);
+        note.setTitle(title);
+        note.setContent(content);
+        return noteRepository.save(note);
+    }
+}
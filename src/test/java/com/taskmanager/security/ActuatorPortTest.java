@@ -0,0 +1,73 @@
+package com.taskmanager.security;
+
+import com.taskmanager.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Actuator on its own port, as in prod: open there without a token, absent from the public port.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.servlet.context-path=/api",
+        "management.endpoints.web.exposure.include=health,prometheus"
+})
+@AutoConfigureObservability(tracing = false)
+class ActuatorPortTest extends IntegrationTest {
+
+    private static final int MANAGEMENT_PORT = freePort();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void managementPort(DynamicPropertyRegistry registry) {
+        registry.add("management.server.port", () -> MANAGEMENT_PORT);
+    }
+
+    @Test
+    void prometheusIsScrapedOnTheManagementPortWithoutAToken() throws Exception {
+        HttpResponse<String> response = get("http://localhost:" + MANAGEMENT_PORT + "/actuator/prometheus");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("jvm_memory_used_bytes");
+    }
+
+    @Test
+    void thePublicPortDoesNotServeTheActuator() throws Exception {
+        assertThat(get("http://localhost:" + port + "/api/actuator/prometheus").statusCode()).isIn(401, 403, 404);
+        assertThat(get("http://localhost:" + port + "/actuator/prometheus").statusCode()).isIn(401, 403, 404);
+    }
+
+    @Test
+    void theManagementPortDoesNotOpenTheApi() throws Exception {
+        assertThat(get("http://localhost:" + MANAGEMENT_PORT + "/api/tasks").statusCode()).isNotEqualTo(200);
+        assertThat(get("http://localhost:" + port + "/api/tasks").statusCode()).isIn(401, 403);
+    }
+
+    private HttpResponse<String> get(String url) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.taskmanager.security;
+
+import com.taskmanager.cache.Invalidation;
+import com.taskmanager.cache.InvalidationBus;
+import com.taskmanager.repository.RevokedTokenRepository;
+import com.taskmanager.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationStoreTest extends IntegrationTest {
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    private final Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+
+    @Test
+    void aTokenIsSpentOnlyOnce() {
+        String jti = UUID.randomUUID().toString();
+        UUID userId = UUID.randomUUID();
+
+        assertThat(tokenRevocationStore.revoke(jti, userId, expiresAt)).isTrue();
+        assertThat(tokenRevocationStore.revoke(jti, userId, expiresAt)).isFalse();
+        assertThat(tokenRevocationStore.isRevoked(jti)).isTrue();
+        assertThat(revokedTokenRepository.findById(jti)).isPresent();
+    }
+
+    @Test
+    void aTokenSpentByAnotherNodeIsRejectedBeforeItsBroadcastArrives() {
+        String jti = UUID.randomUUID().toString();
+        UUID userId = UUID.randomUUID();
+        revokedTokenRepository.insertIfAbsent(jti, userId, LocalDateTime.now().plusHours(1));
+
+        assertThat(tokenRevocationStore.isRevoked(jti)).isFalse();
+        assertThat(tokenRevocationStore.revoke(jti, userId, expiresAt)).isFalse();
+        assertThat(tokenRevocationStore.isRevoked(jti)).isTrue();
+    }
+
+    @Test
+    void reloadsTheTableAfterMissedMessages() {
+        String jti = UUID.randomUUID().toString();
+        revokedTokenRepository.insertIfAbsent(jti, UUID.randomUUID(), LocalDateTime.now().plusHours(1));
+        assertThat(tokenRevocationStore.isRevoked(jti)).isFalse();
+
+        invalidationBus.broadcast(List.of(Invalidation.all()));
+
+        assertThat(tokenRevocationStore.isRevoked(jti)).isTrue();
+    }
+}
@@ -0,0 +1,93 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.AuthDTO;
+import com.taskmanager.entity.User;
+import com.taskmanager.support.IntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * JDBC statements per login and signup, counted by Hibernate's statistics.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AuthQueryCountTest extends IntegrationTest {
+
+    private static final String PASSWORD = "correct horse battery";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void loginRunsOneUsersSelect() {
+        User user = createUser();
+        user.setPasswordHash(passwordEncoder.encode(PASSWORD));
+        userRepository.save(user);
+        statistics.clear();
+
+        AuthDTO.AuthResponse response = authService.login(login(user.getEmail(), PASSWORD));
+
+        assertThat(response.getUserId()).isEqualTo(user.getId().toString());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void signupInsertsWithoutLookingUpTheEmail() {
+        statistics.clear();
+
+        authService.signup(signup("user-" + UUID.randomUUID() + "@example.com"));
+
+        // INSERT users, then user_stats (a merge of an assigned id: SELECT + INSERT)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void duplicateSignupIsRejectedByTheInsert() {
+        String email = createUser().getEmail();
+        statistics.clear();
+
+        assertThatThrownBy(() -> authService.signup(signup(email))).hasMessage("Email already exists");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static AuthDTO.LoginRequest login(String email, String password) {
+        AuthDTO.LoginRequest request = new AuthDTO.LoginRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+
+    private static AuthDTO.SignupRequest signup(String email) {
+        AuthDTO.SignupRequest request = new AuthDTO.SignupRequest();
+        request.setEmail(email);
+        request.setPassword(PASSWORD);
+        request.setFullName("Test User");
+        return request;
+    }
+}
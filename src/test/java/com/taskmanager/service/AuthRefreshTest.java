@@ -0,0 +1,55 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.AuthDTO;
+import com.taskmanager.entity.User;
+import com.taskmanager.security.JwtUtil;
+import com.taskmanager.support.IntegrationTest;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthRefreshTest extends IntegrationTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void aRefreshTokenWorksOnce() {
+        User user = createUser();
+        String refreshToken = jwtUtil.generateRefreshToken(user.getId(), user.getEmail(), user.getFullName());
+
+        AuthDTO.AuthResponse response = authService.refresh(refreshToken);
+
+        assertThat(response.getUserId()).isEqualTo(user.getId().toString());
+        assertThatThrownBy(() -> authService.refresh(refreshToken)).hasMessage("Invalid refresh token");
+        assertThat(authService.refresh(response.getRefreshToken()).getUserId()).isEqualTo(user.getId().toString());
+    }
+
+    @Test
+    void rejectsASignedTokenWithoutAUserId() {
+        // The shape of tokens issued before they carried uid, ver and typ
+        String legacy = Jwts.builder()
+                .subject("user@example.com")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(jwtUtil.getSecret().getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThatThrownBy(() -> authService.refresh(legacy)).hasMessage("Invalid refresh token");
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertThatThrownBy(() -> authService.refresh("not-a-token")).hasMessage("Invalid refresh token");
+    }
+}
@@ -0,0 +1,108 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.BulkDTO;
+import com.taskmanager.dto.NoteDTO;
+import com.taskmanager.dto.TaskDTO;
+import com.taskmanager.entity.User;
+import com.taskmanager.entity.UserStats;
+import com.taskmanager.repository.UserStatsRepository;
+import com.taskmanager.support.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkMutationTest extends IntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = signIn();
+        userStatsRepository.save(new UserStats(user.getId(), 0, 0, 0, 0, 0, LocalDateTime.now()));
+    }
+
+    @Test
+    void taskBulkMutationsReportPerItemAndKeepStatsInStep() {
+        BulkDTO.BulkResult created = taskService.createTasks(List.of(
+                createTask("first", "high", null),
+                createTask("unknown tag", "low", Set.of(UUID.randomUUID())),
+                createTask("second", "medium", null)));
+        assertThat(created.getResults()).extracting(BulkDTO.ItemResult::getSuccess).containsExactly(true, false, true);
+        UUID first = created.getResults().get(0).getId();
+        UUID second = created.getResults().get(2).getId();
+        assertStats(2, 0, 1);
+
+        BulkDTO.BulkResult toggled = taskService.toggleTasks(List.of(first, UUID.randomUUID(), second));
+        assertThat(toggled.getResults()).extracting(BulkDTO.ItemResult::getError)
+                .containsExactly(null, "Task not found", null);
+        assertStats(2, 2, 1);
+
+        TaskDTO.BulkTaskPatch lower = new TaskDTO.BulkTaskPatch();
+        lower.setId(first);
+        lower.setPriority("low");
+        lower.setCompleted(false);
+        BulkDTO.BulkResult updated = taskService.updateTasks(List.of(lower));
+        assertThat(updated.getSucceeded()).isEqualTo(1);
+        assertStats(2, 1, 0);
+
+        BulkDTO.BulkResult deleted = taskService.deleteTasks(List.of(second, UUID.randomUUID()));
+        assertThat(deleted.getResults()).extracting(BulkDTO.ItemResult::getSuccess).containsExactly(true, false);
+        assertStats(1, 0, 0);
+    }
+
+    @Test
+    void noteBulkMutationsKeepPinnedCountInStep() {
+        BulkDTO.BulkResult created = noteService.createNotes(List.of(createNote("one"), createNote("two")));
+        List<UUID> ids = created.getResults().stream().map(BulkDTO.ItemResult::getId).toList();
+
+        noteService.toggleNotesPinned(ids);
+        assertThat(userStatsRepository.findById(user.getId()).orElseThrow().getNotePinned()).isEqualTo(2);
+
+        NoteDTO.BulkNotePatch unpin = new NoteDTO.BulkNotePatch();
+        unpin.setId(ids.get(0));
+        unpin.setIsPinned(false);
+        noteService.updateNotes(List.of(unpin));
+        noteService.deleteNotes(List.of(ids.get(1)));
+
+        UserStats stats = userStatsRepository.findById(user.getId()).orElseThrow();
+        assertThat(stats.getNoteTotal()).isEqualTo(1);
+        assertThat(stats.getNotePinned()).isZero();
+    }
+
+    private void assertStats(long total, long completed, long highPriority) {
+        UserStats stats = userStatsRepository.findById(user.getId()).orElseThrow();
+        assertThat(stats.getTaskTotal()).isEqualTo(total);
+        assertThat(stats.getTaskCompleted()).isEqualTo(completed);
+        assertThat(stats.getTaskHighPriority()).isEqualTo(highPriority);
+    }
+
+    private static TaskDTO.CreateTaskRequest createTask(String title, String priority, Set<UUID> tagIds) {
+        TaskDTO.CreateTaskRequest request = new TaskDTO.CreateTaskRequest();
+        request.setTitle(title);
+        request.setPriority(priority);
+        request.setTagIds(tagIds);
+        return request;
+    }
+
+    private static NoteDTO.CreateNoteRequest createNote(String title) {
+        NoteDTO.CreateNoteRequest request = new NoteDTO.CreateNoteRequest();
+        request.setTitle(title);
+        return request;
+    }
+}
@@ -0,0 +1,80 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.BulkDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkOperationsTest {
+
+    private final BulkOperations bulkOperations = new BulkOperations();
+
+    @Test
+    void rejectsBatchesOverTheLimit() {
+        ReflectionTestUtils.setField(bulkOperations, "bulkMaxItems", 2);
+
+        bulkOperations.checkBatchSize(2);
+        assertThatThrownBy(() -> bulkOperations.checkBatchSize(3))
+                .hasMessage("Too many items: at most 2 per request");
+    }
+
+    @Test
+    void createReportsEveryItemAtItsRequestIndex() {
+        List<List<String>> batches = new ArrayList<>();
+        BulkDTO.BulkResult result = new BulkDTO.BulkResult();
+
+        List<String> saved = bulkOperations.create(List.of("a", "", "b"), item -> {
+            if (item.isEmpty()) {
+                throw new RuntimeException("Title is required");
+            }
+            return item;
+        }, entities -> {
+            batches.add(entities);
+            return entities;
+        }, BulkOperationsTest::idOf, result);
+
+        assertThat(saved).containsExactly("a", "b");
+        assertThat(batches).hasSize(1);
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getResults()).extracting(BulkDTO.ItemResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(result.getResults()).extracting(BulkDTO.ItemResult::getId)
+                .containsExactly(idOf("a"), null, idOf("b"));
+        assertThat(result.getResults().get(1).getError()).isEqualTo("Title is required");
+    }
+
+    @Test
+    void applyReportsMissingEntitiesAndFailedActions() {
+        UUID found = idOf("found");
+        UUID failing = idOf("failing");
+        UUID missing = idOf("missing");
+        List<String> applied = new ArrayList<>();
+
+        BulkDTO.BulkResult result = bulkOperations.apply(List.of(found, missing, failing), Function.identity(),
+                Map.of(found, "found", failing, "failing"), "Task not found", (id, entity) -> {
+                    if (entity.equals("failing")) {
+                        throw new RuntimeException("Tag not found");
+                    }
+                    applied.add(entity);
+                });
+
+        assertThat(applied).containsExactly("found");
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(BulkDTO.ItemResult::getId).containsExactly(found, missing, failing);
+        assertThat(result.getResults()).extracting(BulkDTO.ItemResult::getError)
+                .containsExactly(null, "Task not found", "Tag not found");
+    }
+
+    private static UUID idOf(String name) {
+        return UUID.nameUUIDFromBytes(name.getBytes());
+    }
+}
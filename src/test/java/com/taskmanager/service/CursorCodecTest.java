@@ -0,0 +1,67 @@
+package com.taskmanager.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    private final CursorCodec codec = new CursorCodec();
+
+    @Test
+    void syncCursorRoundTripsEveryStream() {
+        CursorCodec.SyncCursor cursor = new CursorCodec.SyncCursor(
+                position(LocalDateTime.of(2026, 10, 18, 9, 30, 15, 123_456_000)),
+                position(LocalDateTime.of(2026, 10, 17, 0, 0)),
+                position(LocalDateTime.of(1970, 1, 1, 0, 0)),
+                position(LocalDateTime.of(2026, 10, 18, 9, 30, 10)));
+
+        String encoded = codec.encodeSync(cursor);
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(codec.decodeSync(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void syncCursorIsNotAcceptedAsAListCursor() {
+        CursorCodec.Position position = position(LocalDateTime.of(2026, 10, 18, 9, 0));
+        String sync = codec.encodeSync(new CursorCodec.SyncCursor(position, position, position, position));
+        String task = codec.encodeTask(position.at(), position.id());
+
+        assertThatThrownBy(() -> codec.decodeTask(sync)).hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> codec.decodeSync(task)).hasMessage("Invalid cursor");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "not base64!",
+            "s",
+            "s|2026-10-18T09:00|00000000-0000-0000-0000-000000000000",
+            "s|a|b|c|d|e|f|g|h",
+            "s|2026-10-18T09:00|not-a-uuid|2026-10-18T09:00|00000000-0000-0000-0000-000000000000"
+                    + "|2026-10-18T09:00|00000000-0000-0000-0000-000000000000"
+                    + "|2026-10-18T09:00|00000000-0000-0000-0000-000000000000",
+            "x|2026-10-18T09:00|00000000-0000-0000-0000-000000000000|2026-10-18T09:00|00000000-0000-0000-0000-000000000000"
+                    + "|2026-10-18T09:00|00000000-0000-0000-0000-000000000000"
+                    + "|2026-10-18T09:00|00000000-0000-0000-0000-000000000000"
+    })
+    void rejectsMalformedSyncCursors(String raw) {
+        String cursor = raw.equals("not base64!") ? raw
+                : Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> codec.decodeSync(cursor)).hasMessage("Invalid cursor");
+    }
+
+    private static CursorCodec.Position position(LocalDateTime at) {
+        return new CursorCodec.Position(at, UUID.randomUUID());
+    }
+}
@@ -0,0 +1,103 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskmanager.entity.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MergePatchTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final MergePatch<Task> patch = new MergePatch<Task>()
+            .field("title", String.class, false, Task::getTitle, Task::setTitle,
+                    title -> !title.isBlank(), "Title is required")
+            .field("description", String.class, true, Task::getDescription, Task::setDescription)
+            .field("completed", Boolean.class, false, Task::getCompleted, Task::setCompleted)
+            .field("dueDate", LocalDate.class, true, Task::getDueDate, Task::setDueDate)
+            .external("tagIds");
+
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        task = new Task();
+        task.setTitle("Buy milk");
+        task.setDescription("Two litres");
+        task.setCompleted(false);
+        task.setDueDate(LocalDate.of(2026, 10, 1));
+    }
+
+    @Test
+    void leavesMembersAbsentFromThePatchUntouched() {
+        assertThat(patch.apply(task, json("{\"title\": \"Buy bread\"}"), mapper)).containsExactly("title");
+
+        assertThat(task.getTitle()).isEqualTo("Buy bread");
+        assertThat(task.getDescription()).isEqualTo("Two litres");
+        assertThat(task.getDueDate()).isEqualTo(LocalDate.of(2026, 10, 1));
+    }
+
+    @Test
+    void nullRemovesANullableMember() {
+        assertThat(patch.apply(task, json("{\"description\": null, \"dueDate\": null}"), mapper))
+                .containsExactly("description", "dueDate");
+
+        assertThat(task.getDescription()).isNull();
+        assertThat(task.getDueDate()).isNull();
+    }
+
+    @Test
+    void nullIsRejectedForARequiredMember() {
+        assertThatThrownBy(() -> patch.apply(task, json("{\"title\": null}"), mapper))
+                .hasMessage("title cannot be null");
+    }
+
+    @Test
+    void reportsOnlyMembersWhoseValueChanged() {
+        assertThat(patch.apply(task, json("{\"title\": \"Buy milk\", \"completed\": true}"), mapper))
+                .containsExactly("completed");
+        assertThat(patch.apply(task, json("{}"), mapper)).isEmpty();
+    }
+
+    // Patchable members are all scalars, so an object value is a type error rather than a nested merge
+    @Test
+    void rejectsNestedObjectsForScalarMembers() {
+        assertThatThrownBy(() -> patch.apply(task, json("{\"description\": {\"text\": \"x\"}}"), mapper))
+                .hasMessage("Invalid value for description");
+        assertThatThrownBy(() -> patch.apply(task, json("{\"completed\": {\"value\": true}}"), mapper))
+                .hasMessage("Invalid value for completed");
+    }
+
+    @Test
+    void validatesTheWholePatchBeforeApplyingAnything() {
+        assertThatThrownBy(() -> patch.apply(task, json("{\"completed\": true, \"title\": \" \"}"), mapper))
+                .hasMessage("Title is required");
+        assertThatThrownBy(() -> patch.apply(task, json("{\"completed\": true, \"id\": \"x\"}"), mapper))
+                .hasMessage("Field cannot be patched: id");
+
+        assertThat(task.getCompleted()).isFalse();
+    }
+
+    @Test
+    void skipsExternalMembersAndRequiresAnObject() {
+        assertThat(patch.apply(task, json("{\"tagIds\": null}"), mapper)).isEmpty();
+
+        assertThatThrownBy(() -> patch.apply(task, json("[]"), mapper)).hasMessage("Patch must be a JSON object");
+        assertThatThrownBy(() -> patch.apply(task, json("null"), mapper)).hasMessage("Patch must be a JSON object");
+    }
+
+    private JsonNode json(String text) {
+        try {
+            return mapper.readTree(text);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
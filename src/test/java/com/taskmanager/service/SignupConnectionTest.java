@@ -0,0 +1,60 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.AuthDTO;
+import com.taskmanager.support.IntegrationTest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * BCrypt must run before signup's transaction takes a pool connection.
+ */
+class SignupConnectionTest extends IntegrationTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @SpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void hashesThePasswordWithoutHoldingAConnection() throws Exception {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        boolean[] hashed = new boolean[1];
+        boolean[] inTransaction = new boolean[1];
+        boolean[] resourcesBound = new boolean[1];
+        int[] activeConnections = new int[1];
+        doAnswer(invocation -> {
+            hashed[0] = true;
+            inTransaction[0] = TransactionSynchronizationManager.isActualTransactionActive();
+            resourcesBound[0] = !TransactionSynchronizationManager.getResourceMap().isEmpty();
+            activeConnections[0] = pool.getHikariPoolMXBean().getActiveConnections();
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).encode(any());
+
+        AuthDTO.SignupRequest request = new AuthDTO.SignupRequest();
+        request.setEmail("user-" + UUID.randomUUID() + "@example.com");
+        request.setPassword("correct horse battery");
+        request.setFullName("Test User");
+        authService.signup(request);
+
+        assertThat(hashed[0]).isTrue();
+        assertThat(inTransaction[0]).isFalse();
+        assertThat(resourcesBound[0]).isFalse();
+        assertThat(activeConnections[0]).isZero();
+        assertThat(userRepository.findByEmail(request.getEmail())).isPresent();
+    }
+}
@@ -0,0 +1,161 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.NoteDTO;
+import com.taskmanager.dto.SyncDTO;
+import com.taskmanager.dto.TagDTO;
+import com.taskmanager.dto.TaskDTO;
+import com.taskmanager.entity.Task;
+import com.taskmanager.support.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestPropertySource(properties = "app.sync.page-size=2")
+class SyncServiceTest extends IntegrationTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    private final List<UUID> taskIds = new ArrayList<>();
+    private final List<UUID> noteIds = new ArrayList<>();
+    private UUID tagId;
+    private UUID deletedTaskId;
+
+    @BeforeEach
+    void setUp() {
+        signIn();
+        for (int i = 0; i < 5; i++) {
+            taskIds.add(taskService.createTask(task("task " + i)).getId());
+        }
+        for (int i = 0; i < 3; i++) {
+            noteIds.add(noteService.createNote(note("note " + i)).getId());
+        }
+        TagDTO.CreateTagRequest tag = new TagDTO.CreateTagRequest();
+        tag.setName("home");
+        tagId = tagService.createTag(tag).getId();
+        deletedTaskId = taskIds.remove(0);
+        taskService.deleteTask(deletedTaskId);
+    }
+
+    @Test
+    void pagesEveryStreamIndependentlyUntilDrained() {
+        Set<UUID> tasks = new HashSet<>();
+        Set<UUID> notes = new HashSet<>();
+        Set<UUID> tags = new HashSet<>();
+        Set<UUID> deleted = new HashSet<>();
+
+        SyncDTO.Changes changes = syncService.getChanges(null);
+        assertThat(changes.isReset()).isTrue();
+        int pages = 1;
+        while (true) {
+            assertThat(changes.getTasks()).hasSizeLessThanOrEqualTo(2);
+            assertThat(changes.getNotes()).hasSizeLessThanOrEqualTo(2);
+            changes.getTasks().forEach(task -> tasks.add(task.getId()));
+            changes.getNotes().forEach(note -> notes.add(note.getId()));
+            changes.getTags().forEach(tag -> tags.add(tag.getId()));
+            changes.getDeleted().forEach(deletion -> deleted.add(deletion.getId()));
+            if (!changes.isHasMore()) {
+                break;
+            }
+            changes = syncService.getChanges(changes.getCursor());
+            assertThat(changes.isReset()).isFalse();
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(2);
+        assertThat(tasks).containsExactlyInAnyOrderElementsOf(taskIds);
+        assertThat(notes).containsExactlyInAnyOrderElementsOf(noteIds);
+        assertThat(tags).containsExactly(tagId);
+        assertThat(deleted).containsExactly(deletedTaskId);
+    }
+
+    // A drained stream resumes no later than overlap-ms before now: rows already sent from the last page
+    // come again along with the new one, but the stream does not start over
+    @Test
+    void drainedStreamsResumeWithinTheOverlapWindow() {
+        String cursor = drain(syncService.getChanges(null)).getCursor();
+
+        Task added = taskService.createTask(task("added later"));
+        SyncDTO.Changes changes = syncService.getChanges(cursor);
+
+        assertThat(changes.isReset()).isFalse();
+        Set<UUID> resent = ids(drainTasks(changes));
+        assertThat(resent).contains(added.getId()).containsAnyElementsOf(taskIds);
+        assertThat(resent).hasSizeLessThan(taskIds.size() + 1);
+    }
+
+    @Test
+    void cursorOlderThanTombstoneRetentionStartsOver() {
+        CursorCodec.Position old = new CursorCodec.Position(LocalDateTime.of(2000, 1, 1, 0, 0), new UUID(0, 0));
+        String cursor = cursorCodec.encodeSync(new CursorCodec.SyncCursor(old, old, old, old));
+
+        SyncDTO.Changes changes = syncService.getChanges(cursor);
+
+        assertThat(changes.isReset()).isTrue();
+        assertThat(ids(drainTasks(changes))).containsExactlyInAnyOrderElementsOf(taskIds);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> syncService.getChanges("garbage")).hasMessage("Invalid cursor");
+        String listCursor = cursorCodec.encodeTask(LocalDateTime.now(), UUID.randomUUID());
+        assertThatThrownBy(() -> syncService.getChanges(listCursor)).hasMessage("Invalid cursor");
+    }
+
+    private SyncDTO.Changes drain(SyncDTO.Changes changes) {
+        while (changes.isHasMore()) {
+            changes = syncService.getChanges(changes.getCursor());
+        }
+        return changes;
+    }
+
+    private List<Task> drainTasks(SyncDTO.Changes changes) {
+        List<Task> tasks = new ArrayList<>(changes.getTasks());
+        while (changes.isHasMore()) {
+            changes = syncService.getChanges(changes.getCursor());
+            tasks.addAll(changes.getTasks());
+        }
+        return tasks;
+    }
+
+    private static Set<UUID> ids(List<Task> tasks) {
+        Set<UUID> ids = new HashSet<>();
+        tasks.forEach(task -> ids.add(task.getId()));
+        return ids;
+    }
+
+    private static TaskDTO.CreateTaskRequest task(String title) {
+        TaskDTO.CreateTaskRequest request = new TaskDTO.CreateTaskRequest();
+        request.setTitle(title);
+        return request;
+    }
+
+    private static NoteDTO.CreateNoteRequest note(String title) {
+        NoteDTO.CreateNoteRequest request = new NoteDTO.CreateNoteRequest();
+        request.setTitle(title);
+        return request;
+    }
+}
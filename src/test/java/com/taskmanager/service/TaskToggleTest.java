@@ -0,0 +1,78 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.TaskDTO;
+import com.taskmanager.entity.Task;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.support.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskToggleTest extends IntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        signIn();
+        TaskDTO.CreateTaskRequest request = new TaskDTO.CreateTaskRequest();
+        request.setTitle("Water the plants");
+        task = taskService.createTask(request);
+    }
+
+    @Test
+    void togglesWhenTheExpectedVersionMatches() {
+        TaskDTO.TaskSummary toggled = taskService.toggleTaskCompletion(task.getId(), task.getVersion());
+
+        assertThat(toggled.getCompleted()).isTrue();
+        assertThat(version()).isEqualTo(task.getVersion() + 1);
+    }
+
+    @Test
+    void rejectsAStaleVersionWithoutWriting() {
+        taskService.toggleTaskCompletion(task.getId(), null);
+
+        assertThatThrownBy(() -> taskService.toggleTaskCompletion(task.getId(), task.getVersion()))
+                .isInstanceOf(PreconditionFailedException.class);
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(stored.getCompleted()).isTrue();
+        assertThat(stored.getVersion()).isEqualTo(task.getVersion() + 1);
+    }
+
+    @Test
+    void togglesAnyVersionWithoutIfMatch() {
+        taskService.toggleTaskCompletion(task.getId(), null);
+        TaskDTO.TaskSummary toggled = taskService.toggleTaskCompletion(task.getId(), null);
+
+        assertThat(toggled.getCompleted()).isFalse();
+        assertThat(version()).isEqualTo(task.getVersion() + 2);
+    }
+
+    @Test
+    void reportsMissingAndForeignTasksAsNotFound() {
+        assertThatThrownBy(() -> taskService.toggleTaskCompletion(UUID.randomUUID(), 0L))
+                .isNotInstanceOf(PreconditionFailedException.class)
+                .hasMessage("Task not found");
+
+        signIn();
+        assertThatThrownBy(() -> taskService.toggleTaskCompletion(task.getId(), task.getVersion()))
+                .isNotInstanceOf(PreconditionFailedException.class)
+                .hasMessage("Task not found");
+        assertThat(version()).isEqualTo(task.getVersion());
+    }
+
+    private long version() {
+        return taskRepository.findById(task.getId()).orElseThrow().getVersion();
+    }
+}
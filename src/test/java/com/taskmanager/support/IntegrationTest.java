@@ -0,0 +1,60 @@
+package com.taskmanager.support;
+
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Base class for tests running the full application against PostgreSQL ({@link TestDatabase}).
+ * Every test creates its own users, so tests never see each other's rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ExtendWith(TestDatabase.Required.class)
+public abstract class IntegrationTest {
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    protected User createUser() {
+        User user = new User();
+        user.setEmail("user-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("unused");
+        user.setFullName("Test User");
+        return userRepository.save(user);
+    }
+
+    // Authenticates the calling thread as the user, as JwtRequestFilter does for a request
+    protected User signIn(User user) {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), user.getFullName());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
+        return user;
+    }
+
+    protected User signIn() {
+        return signIn(createUser());
+    }
+}
@@ -0,0 +1,75 @@
+package com.taskmanager.support;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.Map;
+
+/**
+ * PostgreSQL for integration tests: the database given by {@code -Dtest.database.url} (or TEST_DATABASE_URL),
+ * otherwise a throwaway container when Docker is available. Tests that need it are skipped when neither is.
+ * <p>
+ * Tables are created by Hibernate and completed by schema-postgresql.sql (see application-test.yml); an
+ * existing database is therefore wiped, so never point this at one whose data matters.
+ */
+public final class TestDatabase {
+
+    private static final String URL = setting("test.database.url", "TEST_DATABASE_URL");
+    private static final String USERNAME = setting("test.database.username", "TEST_DATABASE_USERNAME");
+    private static final String PASSWORD = setting("test.database.password", "TEST_DATABASE_PASSWORD");
+
+    private static PostgreSQLContainer<?> container;
+
+    private TestDatabase() {
+    }
+
+    public static boolean available() {
+        return URL != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    public static void register(DynamicPropertyRegistry registry) {
+        properties().forEach((name, value) -> registry.add(name, () -> value));
+    }
+
+    /**
+     * Datasource properties for the test database, starting the container on first use.
+     */
+    public static synchronized Map<String, Object> properties() {
+        if (URL != null) {
+            return Map.of(
+                    "spring.datasource.url", URL,
+                    "spring.datasource.username", USERNAME == null ? "postgres" : USERNAME,
+                    "spring.datasource.password", PASSWORD == null ? "" : PASSWORD);
+        }
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+        }
+        return Map.of(
+                "spring.datasource.url", container.getJdbcUrl(),
+                "spring.datasource.username", container.getUsername(),
+                "spring.datasource.password", container.getPassword());
+    }
+
+    /**
+     * Skips the test class before any application context is built when there is no database to use.
+     */
+    public static class Required implements ExecutionCondition {
+
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            return available()
+                    ? ConditionEvaluationResult.enabled("PostgreSQL available")
+                    : ConditionEvaluationResult.disabled("No test database: set -Dtest.database.url or start Docker");
+        }
+    }
+
+    private static String setting(String property, String env) {
+        String value = System.getProperty(property);
+        return value != null && !value.isEmpty() ? value : System.getenv(env);
+    }
+}
@@ -0,0 +1,66 @@
+package com.taskmanager.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.ratelimit.RateLimitProperties;
+import com.taskmanager.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0.000001, 1",
+            "0.5, 1",
+            "999, 1",
+            "1000, 1",
+            "1001, 2",
+            "4999.9, 5",
+            "5000, 5",
+            "60000.5, 60"
+    })
+    void retryAfterRoundsUpToWholeSeconds(double waitMillis, long seconds) {
+        assertThat(RateLimitFilter.retryAfterSeconds((long) (waitMillis * 1_000_000))).isEqualTo(seconds);
+    }
+
+    @Test
+    void rejectsWith429AndRetryAfter() throws Exception {
+        MockHttpServletResponse response = filter(TimeUnit.MILLISECONDS.toNanos(2500));
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("3");
+    }
+
+    @Test
+    void passesRequestsThatGetAToken() throws Exception {
+        MockHttpServletResponse response = filter(0);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("Retry-After")).isNull();
+    }
+
+    private static MockHttpServletResponse filter(long waitNanos) throws Exception {
+        RateLimitFilter filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "properties", new RateLimitProperties());
+        ReflectionTestUtils.setField(filter, "rateLimiter", (RateLimiter) (key, limit) -> waitNanos);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        filter.init();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.setServletPath("/tasks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}